@@ -0,0 +1,232 @@
+package MergeFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Membandingkan dua hasil JMH (-rf json) dari build berbeda:
+//   java ... MergeFile.BenchCompare <lama.json> <baru.json> [batas-persen]
+// Ditampilkan skor utama dan halaman/detik, MB/detik per benchmark + parameter.
+// Kode keluar 1 kalau ada skor yang turun lebih dari batas (default 5%), jadi bisa dipakai di CI.
+final class BenchCompare {
+
+    private BenchCompare() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Pakai: BenchCompare <lama.json> <baru.json> [batas-persen]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 5.0;
+        Map<String, Map<String, Double>> before = load(args[0]);
+        Map<String, Map<String, Double>> after = load(args[1]);
+
+        int regressions = 0;
+        for (Map.Entry<String, Map<String, Double>> entry : after.entrySet()) {
+            Map<String, Double> old = before.get(entry.getKey());
+            if (old == null) {
+                System.out.println(entry.getKey() + "  (baru)");
+                continue;
+            }
+            StringBuilder line = new StringBuilder(entry.getKey());
+            boolean regressed = false;
+            for (Map.Entry<String, Double> metric : entry.getValue().entrySet()) {
+                Double was = old.get(metric.getKey());
+                if (was == null || was == 0) {
+                    continue;
+                }
+                double change = (metric.getValue() - was) / was * 100;
+                line.append(String.format(Locale.ROOT, "  %s %.2f → %.2f (%+.1f%%)",
+                        metric.getKey(), was, metric.getValue(), change));
+                // semua metrik berupa throughput: makin besar makin baik
+                if ("skor".equals(metric.getKey()) && change < -threshold) {
+                    regressed = true;
+                }
+            }
+            if (regressed) {
+                line.append("  ⚠️ LEBIH LAMBAT");
+                regressions++;
+            }
+            System.out.println(line);
+        }
+        for (String key : before.keySet()) {
+            if (!after.containsKey(key)) {
+                System.out.println(key + "  (tidak ada di hasil baru)");
+            }
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark turun lebih dari " + threshold + "%");
+            System.exit(1);
+        }
+    }
+
+    // "MergeBench.merge corpus=text" → {skor, pages, megabytes}
+    private static Map<String, Map<String, Double>> load(String path) throws IOException {
+        Object json = new JsonReader(new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8)).value();
+        Map<String, Map<String, Double>> result = new TreeMap<>();
+        for (Object item : (List<?>) json) {
+            Map<?, ?> run = (Map<?, ?>) item;
+            String name = (String) run.get("benchmark");
+            StringBuilder key = new StringBuilder(name.substring(name.indexOf('.') + 1));
+            Object params = run.get("params");
+            if (params instanceof Map) {
+                for (Map.Entry<?, ?> p : ((Map<?, ?>) params).entrySet()) {
+                    key.append(' ').append(p.getKey()).append('=').append(p.getValue());
+                }
+            }
+            Map<String, Double> metrics = new LinkedHashMap<>();
+            metrics.put("skor", score(run.get("primaryMetric")));
+            Object secondary = run.get("secondaryMetrics");
+            if (secondary instanceof Map) {
+                for (String aux : List.of("pages", "megabytes")) {
+                    Object metric = ((Map<?, ?>) secondary).get(aux);
+                    if (metric != null) {
+                        metrics.put(aux, score(metric));
+                    }
+                }
+            }
+            result.put(key.toString(), metrics);
+        }
+        return result;
+    }
+
+    // JMH menulis skor yang tidak bisa dihitung sebagai "NaN"
+    private static double score(Object metric) {
+        return Double.parseDouble(String.valueOf(((Map<?, ?>) metric).get("score")));
+    }
+
+    // pembaca JSON minimal, cukup untuk format hasil JMH
+    private static final class JsonReader {
+
+        private final String text;
+        private int pos = 0;
+
+        JsonReader(String text) {
+            this.text = text;
+        }
+
+        Object value() {
+            skipSpace();
+            char c = text.charAt(pos);
+            switch (c) {
+                case '{':
+                    return object();
+                case '[':
+                    return array();
+                case '"':
+                    return string();
+                case 't':
+                    pos += 4;
+                    return Boolean.TRUE;
+                case 'f':
+                    pos += 5;
+                    return Boolean.FALSE;
+                case 'n':
+                    pos += 4;
+                    return null;
+                default:
+                    return number();
+            }
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipSpace();
+            if (text.charAt(pos) == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipSpace();
+                String key = string();
+                skipSpace();
+                expect(':');
+                map.put(key, value());
+                skipSpace();
+                if (text.charAt(pos++) == '}') {
+                    return map;
+                }
+            }
+        }
+
+        private List<Object> array() {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipSpace();
+            if (text.charAt(pos) == ']') {
+                pos++;
+                return list;
+            }
+            while (true) {
+                list.add(value());
+                skipSpace();
+                if (text.charAt(pos++) == ']') {
+                    return list;
+                }
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c == '\\') {
+                    char e = text.charAt(pos++);
+                    switch (e) {
+                        case 'n':
+                            sb.append('\n');
+                            break;
+                        case 't':
+                            sb.append('\t');
+                            break;
+                        case 'u':
+                            sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                            pos += 4;
+                            break;
+                        default:
+                            sb.append(e);
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+
+        private Number number() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw new IllegalArgumentException("JSON tidak valid di posisi " + pos);
+            }
+            return Double.parseDouble(text.substring(start, pos));
+        }
+
+        private void expect(char c) {
+            if (text.charAt(pos) != c) {
+                throw new IllegalArgumentException("JSON tidak valid di posisi " + pos + ", harusnya '" + c + "'");
+            }
+            pos++;
+        }
+
+        private void skipSpace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+}
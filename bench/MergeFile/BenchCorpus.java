@@ -0,0 +1,181 @@
+package MergeFile;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Kumpulan PDF sintetis untuk benchmark, dibuat sekali lalu dipakai ulang antar build
+// supaya hasilnya bisa dibandingkan. Isinya deterministik (seed tetap):
+//   text  : 20 file × 20 halaman teks saja
+//   image : 10 file × 4 halaman, tiap halaman satu foto scan ~1700×2300 (JPEG)
+//   small : 400 file × 1 halaman, seperti hasil scanner per lembar (<nomor>_<n>.pdf)
+// Folder: -Dmergefile.bench.corpus=<folder>, default build/bench/corpus.
+final class BenchCorpus {
+
+    static final String TEXT = "text";
+    static final String IMAGE = "image";
+    static final String SMALL = "small";
+
+    // naikkan kalau isi korpus diubah, supaya korpus lama dibuat ulang
+    private static final String VERSION = "v1";
+    private static final long SEED = 20240601L;
+
+    private BenchCorpus() {
+    }
+
+    static File baseDir() {
+        return new File(System.getProperty("mergefile.bench.corpus", "build/bench/corpus"));
+    }
+
+    // file PDF korpus itu, urut nama; dibuat dulu kalau belum ada
+    static synchronized List<File> files(String kind) throws IOException {
+        File dir = new File(baseDir(), kind);
+        File ready = new File(dir, ".siap-" + VERSION);
+        if (!ready.exists()) {
+            generate(kind, dir);
+            if (!ready.createNewFile() && !ready.exists()) {
+                throw new IOException("Tidak bisa menandai korpus: " + ready);
+            }
+        }
+        File[] pdfs = dir.listFiles((d, name) -> name.endsWith(".pdf"));
+        if (pdfs == null || pdfs.length == 0) {
+            throw new IOException("Korpus kosong: " + dir);
+        }
+        Arrays.sort(pdfs);
+        return Arrays.asList(pdfs);
+    }
+
+    private static void generate(String kind, File dir) throws IOException {
+        if (dir.exists()) {
+            File[] old = dir.listFiles();
+            if (old != null) {
+                for (File f : old) {
+                    f.delete();
+                }
+            }
+        }
+        if (!dir.mkdirs() && !dir.isDirectory()) {
+            throw new IOException("Tidak bisa membuat folder korpus: " + dir);
+        }
+        Random random = new Random(SEED + kind.hashCode());
+        switch (kind) {
+            case TEXT:
+                for (int i = 1; i <= 20; i++) {
+                    writeTextPdf(new File(dir, String.format("teks_%02d.pdf", i)), 20, random);
+                }
+                break;
+            case IMAGE:
+                for (int i = 1; i <= 10; i++) {
+                    writeImagePdf(new File(dir, String.format("gambar_%02d.pdf", i)), 4, random);
+                }
+                break;
+            case SMALL:
+                for (int i = 1; i <= 400; i++) {
+                    // 100 grup × 4 lembar, pola nama seperti di folder scan
+                    writeTextPdf(new File(dir, String.format("%03d_%d.pdf", (i - 1) / 4 + 1, (i - 1) % 4 + 1)), 1, random);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Korpus tidak dikenal: " + kind);
+        }
+    }
+
+    private static void writeTextPdf(File file, int pages, Random random) throws IOException {
+        try (PDDocument doc = new PDDocument()) {
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                doc.addPage(page);
+                try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                    cs.beginText();
+                    cs.setFont(PDType1Font.HELVETICA, 10);
+                    cs.setLeading(13);
+                    cs.newLineAtOffset(50, 790);
+                    for (int line = 0; line < 56; line++) {
+                        cs.showText(randomLine(random, 95));
+                        cs.newLine();
+                    }
+                    cs.endText();
+                }
+            }
+            doc.save(file);
+        }
+    }
+
+    private static void writeImagePdf(File file, int pages, Random random) throws IOException {
+        try (PDDocument doc = new PDDocument()) {
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                doc.addPage(page);
+                PDImageXObject image = JPEGFactory.createFromImage(doc, scanLikeImage(1700, 2300, random), 0.85f);
+                try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                    PDRectangle box = page.getMediaBox();
+                    cs.drawImage(image, 0, 0, box.getWidth(), box.getHeight());
+                }
+            }
+            doc.save(file);
+        }
+    }
+
+    // gradasi + blok warna + derau, supaya ukuran JPEG mirip foto/scan, bukan bidang polos
+    private static BufferedImage scanLikeImage(int width, int height, Random random) {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] row = new int[width];
+        int blockColor = random.nextInt(0xFFFFFF);
+        for (int y = 0; y < height; y++) {
+            if (y % 64 == 0) {
+                blockColor = random.nextInt(0xFFFFFF);
+            }
+            for (int x = 0; x < width; x++) {
+                int base = (x / 96 + y / 64) % 3 == 0 ? blockColor : 0xF0F0F0 - ((x + y) >> 4);
+                int noise = random.nextInt(48) - 24;
+                int r = clamp(((base >> 16) & 0xFF) + noise);
+                int g = clamp(((base >> 8) & 0xFF) + noise);
+                int b = clamp((base & 0xFF) + noise);
+                row[x] = (r << 16) | (g << 8) | b;
+            }
+            img.setRGB(0, y, width, 1, row, 0, width);
+        }
+        return img;
+    }
+
+    private static int clamp(int v) {
+        return Math.max(0, Math.min(255, v));
+    }
+
+    private static String randomLine(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            int word = 2 + random.nextInt(9);
+            for (int i = 0; i < word; i++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            sb.append(' ');
+        }
+        return sb.substring(0, length);
+    }
+
+    // membuat semua korpus tanpa menjalankan benchmark: java ... MergeFile.BenchCorpus
+    public static void main(String[] args) throws IOException {
+        for (String kind : List.of(TEXT, IMAGE, SMALL)) {
+            long bytes = 0;
+            List<File> files = new ArrayList<>(files(kind));
+            for (File f : files) {
+                bytes += f.length();
+            }
+            System.out.printf("%-6s %4d file, %6.1f MB → %s%n", kind, files.size(), bytes / 1048576.0,
+                    new File(baseDir(), kind).getAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package MergeFile;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+// Korpus yang dipakai satu benchmark, ditambah jumlah halaman dan ukurannya
+// supaya hasil bisa dinormalkan per halaman dan per MB.
+@State(Scope.Benchmark)
+public class CorpusState {
+
+    // listener tanpa keluaran, log tidak ikut diukur
+    static final JobListener QUIET = new JobListener() {
+        @Override
+        public void log(String message) {
+        }
+
+        @Override
+        public void error(String context, Exception ex, File file) {
+            throw new IllegalStateException(context + ": " + file, ex);
+        }
+
+        @Override
+        public void progress(int percent) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    @Param({BenchCorpus.TEXT, BenchCorpus.IMAGE, BenchCorpus.SMALL})
+    public String corpus;
+
+    List<File> files;
+    int pages;
+    long bytes;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        files = BenchCorpus.files(corpus);
+        pages = 0;
+        bytes = 0;
+        for (File f : files) {
+            try (PDDocument doc = PDDocument.load(f)) {
+                pages += doc.getNumberOfPages();
+            }
+            bytes += f.length();
+        }
+    }
+
+    double megabytes() {
+        return bytes / 1048576.0;
+    }
+}
@@ -0,0 +1,81 @@
+package MergeFile;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Encode JPEG dengan target ukuran (JpegSizeEncoder) untuk halaman yang sudah dirender
+// di DPI pipeline. Render tidak ikut diukur; MB di counter adalah MB hasil JPEG.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class JpegEncodeBench {
+
+    private static final int MAX_IMAGES = 6; // halaman 300 DPI ~25 MB per gambar di heap
+
+    @State(Scope.Thread)
+    public static class Images {
+
+        @Param({"200"})
+        public int maxFileSizeKb;
+
+        final List<BufferedImage> images = new ArrayList<>();
+        JpegSizeEncoder encoder;
+        private int next = 0;
+
+        @Setup(Level.Trial)
+        public void render(CorpusState corpus) throws IOException {
+            for (File f : corpus.files) {
+                try (PDDocument doc = PDDocument.load(f)) {
+                    PDFRenderer renderer = new PDFRenderer(doc);
+                    for (int i = 0; i < doc.getNumberOfPages() && images.size() < MAX_IMAGES; i++) {
+                        images.add(renderer.renderImageWithDPI(i, PageRenderer.DEFAULT_DPI));
+                    }
+                }
+                if (images.size() >= MAX_IMAGES) {
+                    break;
+                }
+            }
+            encoder = new JpegSizeEncoder(maxFileSizeKb);
+        }
+
+        BufferedImage nextImage() {
+            BufferedImage image = images.get(next);
+            next = (next + 1) % images.size();
+            return image;
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            encoder.close();
+        }
+    }
+
+    @Benchmark
+    public byte[] encodePage(Images images, Throughput counters) throws IOException {
+        byte[] jpg = images.encoder.encode(images.nextImage());
+        counters.add(1, jpg.length / 1048576.0);
+        return jpg;
+    }
+}
@@ -0,0 +1,34 @@
+package MergeFile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Gabung semua file satu korpus jadi satu PDF, dengan pengaturan default aplikasi.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class MergeBench {
+
+    @Benchmark
+    public File merge(CorpusState corpus, ScratchDir scratch, Throughput counters) throws IOException {
+        JobSettings settings = new JobSettings();
+        File out = new File(scratch.dir, "gabung.pdf");
+        PdfMerger merger = new PdfMerger(settings.pdfInput(), new JobMetrics(), CorpusState.QUIET);
+        if (!merger.merge(corpus.files, out, settings.mergeMemorySetting(1), false)) {
+            throw new IllegalStateException("Gabung gagal");
+        }
+        counters.add(corpus.pages, corpus.megabytes());
+        return out;
+    }
+}
@@ -0,0 +1,89 @@
+package MergeFile;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Render satu halaman per pemanggilan, bergiliran ke semua halaman korpus.
+// Dokumen dibuka sekali per thread seperti di PdfToJpgPipeline. mode = mode warna PageRenderer
+// (auto ikut menghitung render probe).
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class RenderBench {
+
+    @State(Scope.Thread)
+    public static class Pages {
+
+        @Param({"150", "300"})
+        public int dpi;
+
+        @Param({"rgb", "gray", "bw", "auto"})
+        public String mode;
+
+        PageRenderer renderer;
+        final List<PDDocument> pageDocuments = new ArrayList<>();
+        final List<Integer> pageIndexes = new ArrayList<>();
+        private final List<PDDocument> documents = new ArrayList<>();
+        private int next = 0;
+        double mbPerPage;
+
+        @Setup(Level.Trial)
+        public void open(CorpusState corpus) throws IOException {
+            PdfInput input = new JobSettings().pdfInput();
+            renderer = new PageRenderer(PageRenderer.ColorMode.parse(mode), dpi);
+            for (File f : corpus.files) {
+                PDDocument doc = input.open(f);
+                documents.add(doc);
+                for (int i = 0; i < doc.getNumberOfPages(); i++) {
+                    pageDocuments.add(doc);
+                    pageIndexes.add(i);
+                }
+            }
+            mbPerPage = corpus.megabytes() / corpus.pages;
+        }
+
+        // gambar yang siap di-encode, termasuk konversi 1 bit → abu-abu untuk mode bw
+        BufferedImage renderNext() throws IOException {
+            int i = next;
+            next = (next + 1) % pageIndexes.size();
+            try (PageRenderer.Page page = renderer.render(pageDocuments.get(i), pageIndexes.get(i))) {
+                return page.toJpegImage();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            for (PDDocument doc : documents) {
+                doc.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public BufferedImage renderPage(Pages pages, Throughput counters) throws IOException {
+        BufferedImage image = pages.renderNext();
+        counters.add(1, pages.mbPerPage);
+        return image;
+    }
+}
@@ -0,0 +1,34 @@
+package MergeFile;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+// Folder hasil sementara per thread benchmark, dihapus setelah trial selesai.
+@State(Scope.Thread)
+public class ScratchDir {
+
+    File dir;
+
+    @Setup(Level.Trial)
+    public void create() throws IOException {
+        dir = Files.createTempDirectory("mergefile-bench-").toFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        dir.delete();
+    }
+}
@@ -0,0 +1,33 @@
+package MergeFile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Split per halaman semua file satu korpus (mode default aplikasi).
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class SplitBench {
+
+    @Benchmark
+    public int splitPerPage(CorpusState corpus, ScratchDir scratch, Throughput counters) throws IOException {
+        StreamingSplitter splitter = new JobSettings().newSplitter(new JobMetrics(), CorpusState.QUIET);
+        int parts = 0;
+        for (File f : corpus.files) {
+            parts += splitter.split(f, scratch.dir);
+        }
+        counters.add(corpus.pages, corpus.megabytes());
+        return parts;
+    }
+}
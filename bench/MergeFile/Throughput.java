@@ -0,0 +1,28 @@
+package MergeFile;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Counter tambahan di hasil JMH: halaman/detik dan MB/detik (MB input, kecuali encode
+// JPEG yang menghitung MB hasil). Dilaporkan sebagai metrik sekunder "pages" dan "megabytes".
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Throughput {
+
+    public long pages;
+    public double megabytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        pages = 0;
+        megabytes = 0;
+    }
+
+    void add(int pageCount, double mb) {
+        pages += pageCount;
+        megabytes += mb;
+    }
+}
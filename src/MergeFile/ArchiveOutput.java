@@ -0,0 +1,220 @@
+package MergeFile;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Hasil split / PDF → JPG ditulis langsung ke satu arsip ZIP atau TAR, bukan ribuan file
+// kecil di folder (di NTFS/NFS biaya metadata per file yang paling mahal). Tiap entri ditulis
+// begitu halamannya siap. JPG disimpan tanpa kompresi (STORED), JPEG tidak bisa dikecilkan lagi;
+// PDF di ZIP di-deflate. Arsip ditulis ke file sementara di folder tujuan dan baru dipindah ke
+// nama akhir saat commit(), jadi job yang batal/gagal tidak meninggalkan arsip setengah jadi.
+final class ArchiveOutput implements Closeable {
+
+    enum Format {
+        ZIP("zip"), TAR("tar");
+
+        final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        // "zip" / "tar"; "folder" atau kosong = null (file biasa)
+        static Format parse(String text) {
+            String value = text.trim().toLowerCase();
+            if (value.isEmpty() || "folder".equals(value)) {
+                return null;
+            }
+            for (Format f : values()) {
+                if (f.extension.equals(value)) {
+                    return f;
+                }
+            }
+            throw new IllegalArgumentException("Format arsip tidak dikenal: " + text + " (zip, tar atau folder)");
+        }
+    }
+
+    // isi satu entri, ditulis ke stream (stream jangan ditutup oleh writer)
+    interface EntryWriter {
+
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private final File target;
+    private final File tmp;
+    private final Format format;
+    private final ZipArchiveOutputStream zip; // salah satu dari zip / tar
+    private final TarArchiveOutputStream tar;
+    private final Closeable raw; // file sementara, ditutup langsung kalau batal di tengah entri
+    private int entries = 0;
+    private boolean committed = false;
+    private boolean broken = false; // entri ZIP gagal di tengah jalan, arsip tidak bisa dipakai
+
+    ArchiveOutput(File target, Format format) throws IOException {
+        this.target = target;
+        this.format = format;
+        this.tmp = File.createTempFile("." + target.getName() + "-", ".part", target.getAbsoluteFile().getParentFile());
+        try {
+            if (format == Format.ZIP) {
+                // ZIP ke file (bisa seek): ukuran entri yang di-deflate ditulis belakangan, Zip64 kalau perlu
+                SeekableByteChannel channel = Files.newByteChannel(tmp.toPath(), StandardOpenOption.WRITE);
+                raw = channel;
+                zip = new ZipArchiveOutputStream(channel);
+                tar = null;
+            } else {
+                FileOutputStream file = new FileOutputStream(tmp);
+                raw = file;
+                zip = null;
+                tar = new TarArchiveOutputStream(new BufferedOutputStream(file, 1 << 16));
+                tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+                tar.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+            }
+        } catch (IOException ex) {
+            tmp.delete();
+            throw ex;
+        }
+    }
+
+    File getTarget() {
+        return target;
+    }
+
+    Format getFormat() {
+        return format;
+    }
+
+    synchronized int getEntryCount() {
+        return entries;
+    }
+
+    // data yang sudah terkompresi (JPG): disimpan apa adanya
+    synchronized void addStored(String name, byte[] data) throws IOException {
+        checkUsable();
+        if (zip != null) {
+            ZipArchiveEntry entry = new ZipArchiveEntry(name);
+            entry.setMethod(ZipArchiveEntry.STORED);
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            entry.setSize(data.length);
+            entry.setCrc(crc.getValue());
+            zip.putArchiveEntry(entry);
+            zip.write(data);
+            zip.closeArchiveEntry();
+        } else {
+            writeTarEntry(name, data, data.length);
+        }
+        entries++;
+    }
+
+    // hasilnya ukuran entri sebelum dikompres
+    synchronized long add(String name, EntryWriter writer) throws IOException {
+        checkUsable();
+        long size;
+        if (zip != null) {
+            ZipArchiveEntry entry = new ZipArchiveEntry(name);
+            entry.setMethod(ZipArchiveEntry.DEFLATED);
+            zip.putArchiveEntry(entry);
+            EntryStream stream = new EntryStream(zip);
+            // entri sudah setengah tertulis di arsip, tidak bisa dibatalkan sendiri
+            broken = true;
+            writer.writeTo(stream);
+            stream.flush();
+            zip.closeArchiveEntry();
+            broken = false;
+            size = stream.count;
+        } else {
+            // header TAR berisi ukuran, jadi entri dikumpulkan dulu di memori
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(256 * 1024);
+            writer.writeTo(new EntryStream(buffer));
+            byte[] data = buffer.toByteArray();
+            writeTarEntry(name, data, data.length);
+            size = data.length;
+        }
+        entries++;
+        return size;
+    }
+
+    private void checkUsable() throws IOException {
+        if (broken) {
+            throw new IOException("Arsip " + target.getName() + " rusak karena entri sebelumnya gagal ditulis");
+        }
+    }
+
+    private void writeTarEntry(String name, byte[] data, int length) throws IOException {
+        TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize(length);
+        entry.setModTime(System.currentTimeMillis());
+        tar.putArchiveEntry(entry);
+        tar.write(data, 0, length);
+        tar.closeArchiveEntry();
+    }
+
+    // arsip selesai → pindah ke nama akhir (menggantikan arsip lama)
+    synchronized void commit() throws IOException {
+        checkUsable();
+        if (zip != null) {
+            zip.finish();
+            zip.close();
+        } else {
+            tar.finish();
+            tar.close();
+        }
+        PdfOutput.moveIntoPlace(tmp, target);
+        committed = true;
+    }
+
+    // tanpa commit() = batal, file sementara dihapus
+    @Override
+    public synchronized void close() {
+        if (committed) {
+            return;
+        }
+        try {
+            raw.close();
+        } catch (IOException ignored) {
+        }
+        tmp.delete();
+    }
+
+    // PDFBox menutup stream setelah save(), entri arsip harus tetap terbuka
+    private static final class EntryStream extends FilterOutputStream {
+
+        long count = 0;
+
+        EntryStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
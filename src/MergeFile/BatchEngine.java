@@ -0,0 +1,678 @@
+package MergeFile;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+// Inti proses gabung, split, kompres dan PDF → JPG tanpa UI.
+// Dipakai oleh SwingWorker di MergeFile dan oleh MergeFileCli; semua pesan lewat JobListener.
+final class BatchEngine {
+
+    enum Operation {
+        MERGE, SPLIT, COMPRESS, JPG
+    }
+
+    private final JobSettings settings;
+    private final JobListener listener;
+    private final String today = today();
+    private final ResultCache cache; // null = cache dimatikan
+    private final ResultCache.Stats cacheStats = new ResultCache.Stats();
+    private final JobMetrics metrics = new JobMetrics();
+
+    BatchEngine(JobSettings settings, JobListener listener) {
+        this.settings = settings;
+        this.listener = metrics.counting(listener);
+        this.cache = settings.cacheMaxMb > 0
+                ? ResultCache.open(settings.cacheDir(), settings.cacheMaxMb * 1024L * 1024L) : null;
+        if (settings.jobManifest) {
+            metrics.setManifest(new JobManifest());
+        }
+    }
+
+    File run(Operation operation, List<File> files, boolean folderMode) throws IOException, InterruptedException {
+        metrics.setOperation(operation.name());
+        try {
+            return execute(operation, files, folderMode);
+        } finally {
+            finishCache();
+            finishMetrics();
+        }
+    }
+
+    // mode folder: PDF dicari di thread job, bukan oleh pemanggil. Gabung langsung mengisi manifest
+    // grup dari pencarian tanpa daftar semua file; operasi lain memang butuh daftarnya.
+    // onFound dipanggil dari thread pencari untuk tiap file yang ditemukan.
+    File runFolder(Operation operation, File folder, PdfDiscovery discovery, Consumer<File> onFound)
+            throws IOException, InterruptedException {
+        metrics.setOperation(operation.name());
+        try {
+            if (operation == Operation.MERGE) {
+                return mergeFolder(folder, discovery, onFound);
+            }
+            List<File> files = discovery.find(folder, onFound, listener::isCancelled);
+            logSkippedDirs(discovery);
+            if (files.isEmpty()) {
+                listener.log("⚠️ Tidak ada file PDF di " + folder.getAbsolutePath());
+                return null;
+            }
+            return execute(operation, files, true);
+        } finally {
+            finishCache();
+            finishMetrics();
+        }
+    }
+
+    private File execute(Operation operation, List<File> files, boolean folderMode)
+            throws IOException, InterruptedException {
+        switch (operation) {
+            case MERGE:
+                return merge(files, folderMode);
+            case SPLIT:
+                return split(files.get(0));
+            case COMPRESS:
+                return compress(files);
+            default:
+                return convertToJpg(files);
+        }
+    }
+
+    private void logSkippedDirs(PdfDiscovery discovery) {
+        if (discovery.getSkippedDirs() > 0) {
+            listener.log("⚠️ " + discovery.getSkippedDirs() + " folder tidak bisa dibaca dan dilewati.");
+        }
+    }
+
+    // ringkasan kinerja di log, laporan JSON lengkap di <folder output>/laporan
+    private void finishMetrics() {
+        metrics.finish();
+        for (String line : metrics.summaryLines()) {
+            listener.log(line);
+        }
+        File reportDir = new File(settings.outputBaseFolder, "laporan");
+        if (settings.jobReport) {
+            try {
+                File report = metrics.writeReport(reportDir, listener.isCancelled());
+                listener.log("🧾 Laporan: " + report.getPath());
+            } catch (IOException ex) {
+                listener.log("⚠️ Laporan job tidak bisa ditulis: " + ex.getMessage());
+            }
+        }
+        JobManifest manifest = metrics.getManifest();
+        if (manifest != null) {
+            try (manifest) {
+                File xlsx = metrics.reportFile(reportDir, "xlsx");
+                manifest.write(xlsx);
+                listener.log("📋 Manifest: " + xlsx.getPath() + " (" + manifest.getRowCount() + " baris)");
+            } catch (IOException | RuntimeException ex) {
+                listener.log("⚠️ Manifest XLSX tidak bisa ditulis: " + ex.getMessage());
+            }
+            metrics.setManifest(null);
+        }
+    }
+
+    private void finishCache() {
+        if (cache != null) {
+            cache.flush();
+            if (cacheStats.hits.get() + cacheStats.misses.get() > 0) {
+                listener.log(cacheStats.describe(cache));
+            }
+        }
+    }
+
+    // folder tujuan hasil, sama dengan susunan folder yang dipakai GUI sejak awal
+    File outputDir(Operation operation, List<File> files) {
+        switch (operation) {
+            case MERGE:
+                return mergeOutputDir(files.get(0).getAbsoluteFile().getParentFile());
+            case SPLIT:
+                return new File(settings.outputBaseFolder,
+                        "Hasil_Split/" + today + "/" + files.get(0).getAbsoluteFile().getParentFile().getName());
+            case COMPRESS:
+                return new File(settings.outputBaseFolder, "Hasil_Kompres/" + today + "/");
+            default:
+                return new File(settings.outputBaseFolder, "Hasil_PDF2JPG/" + today + "/");
+        }
+    }
+
+    File mergeOutputDir(File sourceDir) {
+        return mergeOutputDir(settings, today, sourceDir);
+    }
+
+    private static File mergeOutputDir(JobSettings settings, String day, File sourceDir) {
+        return new File(settings.outputBaseFolder, "Hasil_Gabung/" + day + "/" + sourceDir.getName());
+    }
+
+    private static String today() {
+        return new SimpleDateFormat("yyyy-MM-dd").format(new Date());
+    }
+
+    // nomor grup untuk mode folder: bagian nama sebelum "_" pertama
+    static String groupKey(String fileName) {
+        String name = fileName.replace(".pdf", "");
+        return name.contains("_") ? name.split("_")[0] : name;
+    }
+
+    // mode pantau folder: hanya grup yang berubah yang digabung ulang,
+    // grup yang semua filenya sudah dihapus ikut dihapus hasilnya
+    File remergeGroups(File sourceDir, Map<String, List<File>> groups) throws IOException, InterruptedException {
+        File outputDir = mergeOutputDir(sourceDir);
+        metrics.setOperation(Operation.MERGE.name());
+        // juga kalau semua grup kosong: manifest XLSX dari konstruktor harus ditutup
+        try {
+            List<File> files = new ArrayList<>();
+            List<String> emptied = new ArrayList<>();
+            for (Map.Entry<String, List<File>> entry : groups.entrySet()) {
+                if (entry.getValue().isEmpty()) {
+                    emptied.add(entry.getKey());
+                } else {
+                    files.addAll(entry.getValue());
+                }
+            }
+            deleteGroupOutputs(outputDir, emptied, listener);
+            if (!files.isEmpty()) {
+                merge(files, true);
+            }
+        } finally {
+            finishCache();
+            finishMetrics();
+        }
+        return outputDir;
+    }
+
+    // hanya menghapus hasil grup yang sudah kosong, tanpa engine (cache, metrik, manifest)
+    static void deleteEmptiedGroups(JobSettings settings, File sourceDir, Collection<String> groups,
+            JobListener listener) {
+        deleteGroupOutputs(mergeOutputDir(settings, today(), sourceDir), groups, listener);
+    }
+
+    private static void deleteGroupOutputs(File outputDir, Collection<String> groups, JobListener listener) {
+        for (String group : groups) {
+            File stale = new File(outputDir, group + ".pdf");
+            if (stale.delete()) {
+                listener.log("🗑️ Grup " + group + " kosong, hasil lama dihapus: " + stale.getName());
+            }
+        }
+    }
+
+    File merge(List<File> files, boolean folderMode) throws IOException, InterruptedException {
+        File outputDir = outputDir(Operation.MERGE, files);
+        if (!outputDir.exists()) {
+            outputDir.mkdirs();
+        }
+
+        if (folderMode) {
+            mergeGroups(files, outputDir);
+            return outputDir;
+        }
+
+        if (files.size() < 2) {
+            listener.log("⚠️ Minimal pilih 2 file untuk digabung.");
+            return outputDir;
+        }
+
+        String outputName = files.get(0).getName().replace(".pdf", "");
+        File outputFile = new File(outputDir, outputName + ".pdf");
+
+        String key = cacheKey("merge", "daftar", files);
+        if (fromCache(key, outputDir, files)) {
+            listener.log("♻️ Dari cache: " + outputFile.getName());
+            listener.progress(100);
+            return outputDir;
+        }
+
+        PdfMerger merger = new PdfMerger(settings.pdfInput(), metrics, listener);
+        HeapPeakMeter heap = HeapPeakMeter.start();
+        boolean merged;
+        try {
+            merged = merger.merge(files, outputFile, settings.mergeMemorySetting(1), true);
+        } finally {
+            heap.stop();
+        }
+        if (merged) {
+            listener.log("✔️ Selesai: " + outputFile.getName() + " (puncak heap: " + heap.peakMb() + " MB)");
+            toCache(key, List.of(outputFile));
+        }
+        return outputDir;
+    }
+
+    // mode folder: file dikelompokkan per nomor di depan "_" dan tiap grup jadi satu PDF
+    private void mergeGroups(List<File> files, File outputDir) throws IOException, InterruptedException {
+        // grup disusun di file sementara yang sudah terurut, bukan HashMap berisi semua file
+        GroupManifest manifest;
+        try (GroupManifest.Builder builder = new GroupManifest.Builder()) {
+            for (File pdf : files) {
+                builder.add(pdf);
+            }
+            manifest = builder.build();
+        }
+        mergeGroups(manifest, outputDir);
+    }
+
+    // gabung folder tanpa daftar file: tiap PDF dari pencarian langsung masuk manifest grup,
+    // jadi memori tidak bergantung pada jumlah file di folder
+    private File mergeFolder(File folder, PdfDiscovery discovery, Consumer<File> onFound)
+            throws IOException, InterruptedException {
+        File outputDir = mergeOutputDir(folder.getAbsoluteFile());
+        GroupManifest manifest;
+        try (GroupManifest.Builder builder = new GroupManifest.Builder()) {
+            try {
+                discovery.walk(folder, pdf -> {
+                    onFound.accept(pdf);
+                    // thread pencari jalan bersamaan, Builder tidak thread-safe
+                    synchronized (builder) {
+                        try {
+                            builder.add(pdf);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    }
+                }, listener::isCancelled);
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            manifest = builder.build();
+        }
+        logSkippedDirs(discovery);
+        if (listener.isCancelled() || manifest.getFileCount() == 0) {
+            manifest.close();
+            if (!listener.isCancelled()) {
+                listener.log("⚠️ Tidak ada file PDF di " + folder.getAbsolutePath());
+            }
+            return outputDir;
+        }
+        listener.log("🔎 " + manifest.getFileCount() + " file PDF dalam " + manifest.getGroupCount() + " grup");
+        if (!outputDir.exists()) {
+            outputDir.mkdirs();
+        }
+        mergeGroups(manifest, outputDir);
+        return outputDir;
+    }
+
+    private void mergeGroups(GroupManifest manifest, File outputDir) throws IOException, InterruptedException {
+        try (GroupManifest.Reader reader = manifest.open()) {
+            mergeGroups(manifest.getGroupCount(), reader, outputDir);
+        } finally {
+            manifest.close();
+        }
+    }
+
+    private void mergeGroups(int total, GroupManifest.Reader reader, File outputDir)
+            throws IOException, InterruptedException {
+        AtomicInteger count = new AtomicInteger();
+        int[] lastProgress = {0};
+        int threads = Math.min(settings.mergeThreads, Math.max(1, total));
+        listener.log("⚙️ Menggabungkan " + total + " grup dengan " + threads + " thread");
+
+        // antrian dibatasi: kalau penuh, thread pemanggil ikut mengerjakan grup (CallerRuns),
+        // jadi grup dibaca dari manifest hanya secepat grup selesai digabung
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        // budget dibagi rata, karena beberapa grup jalan bersamaan
+        MemoryUsageSetting memSetting = settings.mergeMemorySetting(threads);
+        PdfInput input = settings.pdfInput();
+
+        try {
+            GroupManifest.Group group;
+            while ((group = reader.nextGroup()) != null) {
+                if (listener.isCancelled()) {
+                    break;
+                }
+
+                String sepNumber = group.key;
+                List<File> groupFiles = group.files; // sudah urut natural (_2 sebelum _10)
+
+                pool.execute(() -> {
+                    if (listener.isCancelled()) {
+                        return;
+                    }
+
+                    File outputFile = new File(outputDir, sepNumber + ".pdf");
+                    try {
+                        // kunci grup: nomor grup + isi semua anggotanya
+                        String key = cacheKey("merge", "grup:" + sepNumber, groupFiles);
+                        if (fromCache(key, outputDir, groupFiles)) {
+                            listener.log("♻️ Dari cache: " + outputFile.getName());
+                        } else {
+                            // tiap grup punya merger sendiri, PDFMergerUtility tidak thread-safe
+                            PdfMerger merger = new PdfMerger(input, metrics, listener);
+                            HeapPeakMeter heap = HeapPeakMeter.start();
+                            boolean merged;
+                            try {
+                                merged = merger.merge(groupFiles, outputFile, memSetting, false);
+                            } finally {
+                                heap.stop();
+                            }
+                            if (!merged) {
+                                return;
+                            }
+                            toCache(key, List.of(outputFile));
+                            // heap terpakai selama grup ini jalan, termasuk grup lain yang paralel
+                            listener.log("✔️ Selesai: " + outputFile.getName()
+                                    + " (puncak heap: " + heap.peakMb() + " MB)");
+                        }
+                    } catch (IOException | RuntimeException ex) {
+                        // PDF rusak dari PDFBox bisa berupa RuntimeException; tetap tercatat sebagai error file ini
+                        listener.error("Gabung PDF", ex, outputFile);
+                        return;
+                    }
+
+                    int done = count.incrementAndGet();
+                    synchronized (count) {
+                        // progress hanya boleh naik walau thread selesai tidak berurutan
+                        int progress = (int) ((done * 100.0f) / total);
+                        if (progress > lastProgress[0]) {
+                            lastProgress[0] = progress;
+                            listener.progress(progress);
+                        }
+                    }
+                });
+            }
+
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } finally {
+            // dibatalkan → thread pemanggil di-interrupt; grup yang masih jalan dihentikan dulu,
+            // lalu InterruptedException diteruskan ke pemanggil supaya job tercatat batal
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    File split(File fileToSplit) throws IOException {
+        File outputDir = outputDir(Operation.SPLIT, List.of(fileToSplit));
+        if (!outputDir.exists()) {
+            outputDir.mkdirs();
+        }
+
+        StreamingSplitter splitter = settings.newSplitter(metrics, listener);
+        ArchiveOutput.Format format = settings.archiveFormat;
+        String key = cacheKey("split", splitter.describe() + (format != null ? "|" + format.extension : ""),
+                List.of(fileToSplit));
+        if (fromCache(key, outputDir, List.of(fileToSplit))) {
+            listener.log("♻️ Dari cache: " + fileToSplit.getName());
+            listener.log("📄 Total bagian: " + cache.names(key).size() + " file");
+            listener.progress(100);
+            return outputDir;
+        }
+
+        String baseName = fileToSplit.getName().replace(".pdf", "");
+        if (format != null) {
+            File archiveFile = new File(outputDir, baseName + "." + format.extension);
+            try (ArchiveOutput archive = new ArchiveOutput(archiveFile, format)) {
+                int parts = splitter.split(fileToSplit, outputDir, archive);
+                if (parts > 0 && !listener.isCancelled()) {
+                    archive.commit();
+                    listener.log("📦 " + parts + " bagian di " + archiveFile.getName());
+                    toCache(key, List.of(archiveFile));
+                }
+            }
+            return outputDir;
+        }
+
+        // bagian dari split sebelumnya di folder yang sama diganti semua
+        Pattern partNames = Pattern.compile(Pattern.quote(baseName) + "_\\d+(-\\d+)?\\.pdf");
+        unlinkMatching(outputDir, partNames);
+        long start = System.currentTimeMillis();
+        int parts = splitter.split(fileToSplit, outputDir);
+        listener.log("📄 Total bagian: " + parts + " file");
+        if (parts > 0 && !listener.isCancelled()) {
+            toCache(key, findOutputs(outputDir, partNames, start));
+        }
+        return outputDir;
+    }
+
+    File compress(List<File> pdfFiles) throws InterruptedException {
+        File outputDir = outputDir(Operation.COMPRESS, pdfFiles);
+        if (!outputDir.exists()) {
+            outputDir.mkdirs();
+        }
+
+        String tag = "java".equals(settings.compressEngine)
+                ? "java|" + settings.javaCompressDpi + "|0.75"
+                : settings.gsTargetSizeMode
+                ? "gs-target|" + settings.maxPdfSizeKb + "|" + settings.gsImageDpiOverride
+                : "gs|" + settings.gsCompressionLevel;
+        Map<File, String> keys = new HashMap<>();
+        List<File> misses = new ArrayList<>();
+        Map<File, File> outFiles = compressedOutputs(pdfFiles, outputDir);
+        for (File pdfFile : pdfFiles) {
+            File outFile = outFiles.get(pdfFile);
+            String key = cacheKey("kompres", tag, List.of(pdfFile));
+            // nama di cache bisa berakhiran (2) dari batch lain, dipulihkan dengan nama batch ini
+            if (fromCacheAs(key, outFile, List.of(pdfFile))) {
+                listener.log("♻️ Dari cache: " + outFile.getName());
+            } else {
+                unlink(outFile);
+                keys.put(pdfFile, key);
+                misses.add(pdfFile);
+            }
+        }
+        if (misses.isEmpty()) {
+            listener.progress(100);
+            return outputDir;
+        }
+
+        long start = System.currentTimeMillis();
+        if ("java".equals(settings.compressEngine)) {
+            ImageRecompressor recompressor = new ImageRecompressor(settings.javaCompressDpi, 0.75f,
+                    settings.maxPdfSizeKb, settings.pdfInput(), metrics, listener);
+            recompressor.compressAll(misses, outFiles, settings.gsProcesses);
+        } else {
+            GhostscriptPool gsPool = new GhostscriptPool(settings.gsPath, settings.gsCompressionLevel,
+                    settings.gsProcesses, settings.gsTimeoutSec, settings.maxPdfSizeKb, metrics, listener);
+            gsPool.setTargetSizeMode(settings.gsTargetSizeMode, settings.gsImageDpiOverride);
+            gsPool.compressAll(misses, outFiles);
+        }
+
+        for (File pdfFile : misses) {
+            File outFile = outFiles.get(pdfFile);
+            if (outFile.isFile() && outFile.lastModified() >= start - 1000) {
+                toCache(keys.get(pdfFile), List.of(outFile));
+            }
+        }
+        return outputDir;
+    }
+
+    File convertToJpg(List<File> pdfFiles) throws IOException, InterruptedException {
+        File outputDir = outputDir(Operation.JPG, pdfFiles);
+        if (!outputDir.exists()) {
+            outputDir.mkdirs();
+        }
+
+        // satu file → langsung di folder tanggal (seperti dulu), banyak file → subfolder per file,
+        // dihitung dari semua file (bukan hanya yang tidak ada di cache) supaya namanya tetap sama
+        Map<File, String> subfolders = pdfFiles.size() > 1 ? uniqueBaseNames(pdfFiles) : null;
+        String tag = "jpg|" + settings.jpgDpi + "|" + settings.jpgColorMode.option + "|" + settings.maxFileSizeKb;
+        if (settings.archiveFormat != null) {
+            return convertToJpgArchive(pdfFiles, outputDir, subfolders, tag);
+        }
+        Map<File, String> keys = new HashMap<>();
+        List<File> misses = new ArrayList<>();
+        for (File pdfFile : pdfFiles) {
+            File targetDir = subfolders != null ? new File(outputDir, subfolders.get(pdfFile)) : outputDir;
+            String key = cacheKey("jpg", tag, List.of(pdfFile));
+            if (fromCache(key, targetDir, List.of(pdfFile))) {
+                listener.log("♻️ Dari cache: " + pdfFile.getName() + " (" + cache.names(key).size() + " JPG)");
+            } else {
+                keys.put(pdfFile, key);
+                misses.add(pdfFile);
+            }
+        }
+        if (misses.isEmpty()) {
+            listener.progress(100);
+            return outputDir;
+        }
+
+        PdfToJpgPipeline pipeline = new PdfToJpgPipeline(misses, outputDir, null, subfolders,
+                settings.renderThreads, settings.maxFileSizeKb, settings.pageRenderer(), settings.pdfInput(), metrics,
+                listener);
+        pipeline.run();
+
+        if (!listener.isCancelled()) {
+            // hanya JPG yang ditulis untuk sumber itu; folder tanggal dipakai bersama banyak dokumen
+            for (File pdfFile : misses) {
+                List<File> written = pipeline.outputsOf(pdfFile);
+                if (!written.isEmpty()) {
+                    toCache(keys.get(pdfFile), written);
+                }
+            }
+        }
+        return outputDir;
+    }
+
+    // semua JPG satu proses dalam satu arsip: <nama>.zip untuk satu file,
+    // <folder sumber>.zip untuk banyak file (isinya subfolder per file seperti di mode folder)
+    private File convertToJpgArchive(List<File> pdfFiles, File outputDir, Map<File, String> subfolders, String tag)
+            throws IOException, InterruptedException {
+        ArchiveOutput.Format format = settings.archiveFormat;
+        String name = subfolders != null ? pdfFiles.get(0).getAbsoluteFile().getParentFile().getName()
+                : PdfToJpgPipeline.baseName(pdfFiles.get(0));
+        File archiveFile = new File(outputDir, name + "." + format.extension);
+        String key = cacheKey("jpg", tag + "|" + format.extension, pdfFiles);
+        if (fromCache(key, outputDir, pdfFiles)) {
+            listener.log("♻️ Dari cache: " + archiveFile.getName());
+            listener.progress(100);
+            return outputDir;
+        }
+
+        try (ArchiveOutput archive = new ArchiveOutput(archiveFile, format)) {
+            new PdfToJpgPipeline(pdfFiles, outputDir, archive, subfolders, settings.renderThreads,
+                    settings.maxFileSizeKb, settings.pageRenderer(), settings.pdfInput(), metrics, listener).run();
+            if (archive.getEntryCount() > 0 && !listener.isCancelled()) {
+                archive.commit();
+                listener.log("📦 " + archive.getEntryCount() + " JPG di " + archiveFile.getName());
+                toCache(key, List.of(archiveFile));
+            }
+        }
+        return outputDir;
+    }
+
+    // nama dasar (tanpa .pdf) per file untuk hasil di satu folder bersama: PDF bernama sama dari
+    // folder sumber berbeda dapat "nama (2)", "nama (3)", ... tanpa beda huruf besar/kecil (Windows).
+    // Hanya bergantung pada urutan daftar, jadi dihitung sekali sebelum worker paralel mulai menulis.
+    static Map<File, String> uniqueBaseNames(List<File> files) {
+        Map<File, String> names = new HashMap<>();
+        Set<String> used = new HashSet<>();
+        for (File file : files) {
+            String base = PdfToJpgPipeline.baseName(file);
+            String name = base;
+            for (int n = 2; !used.add(name.toLowerCase(Locale.ROOT)); n++) {
+                name = base + " (" + n + ")";
+            }
+            names.put(file, name);
+        }
+        return names;
+    }
+
+    // <nama>_compressed.pdf per file, semua di folder tanggal yang sama
+    private static Map<File, File> compressedOutputs(List<File> pdfFiles, File outputDir) {
+        Map<File, File> outputs = new HashMap<>();
+        for (Map.Entry<File, String> e : uniqueBaseNames(pdfFiles).entrySet()) {
+            outputs.put(e.getKey(), new File(outputDir, e.getValue() + "_compressed.pdf"));
+        }
+        return outputs;
+    }
+
+    // ===== Cache =====
+    // null = cache mati atau input tidak bisa dibaca (proses biasa yang akan melaporkan error-nya)
+    private String cacheKey(String operation, String settingsTag, List<File> inputs) {
+        if (cache == null) {
+            return null;
+        }
+        try {
+            return cache.key(operation, settingsTag, inputs);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private boolean fromCache(String key, File targetDir, List<File> inputs) {
+        if (key == null) {
+            return false;
+        }
+        if (cache.restore(key, targetDir)) {
+            List<String> names = cache.names(key);
+            cacheStats.hit(targetDir, names);
+            String output = names.size() == 1 ? new File(targetDir, names.get(0)).getPath()
+                    : targetDir.getPath() + " (" + names.size() + " file)";
+            for (File input : inputs) {
+                metrics.cached(input, output);
+            }
+            return true;
+        }
+        cacheStats.misses.incrementAndGet();
+        return false;
+    }
+
+    // entri cache berisi satu file, dipulihkan sebagai target
+    private boolean fromCacheAs(String key, File target, List<File> inputs) {
+        if (key == null) {
+            return false;
+        }
+        if (cache.restoreAs(key, target)) {
+            cacheStats.hit(target.getParentFile(), List.of(target.getName()));
+            for (File input : inputs) {
+                metrics.cached(input, target.getPath());
+            }
+            return true;
+        }
+        cacheStats.misses.incrementAndGet();
+        return false;
+    }
+
+    private void toCache(String key, List<File> outputs) {
+        if (key != null) {
+            cache.store(key, outputs);
+        }
+    }
+
+    // File hasil bisa berupa hard link ke entri cache. Penulis yang menimpa file di tempat (PDFBox
+    // di kompres/split, gs, pipeline JPG) harus menghapus file lama dulu supaya isi cache tidak ikut
+    // tertimpa. Gabung tidak perlu: PdfOutput selalu memindahkan file baru ke nama akhir.
+    private static void unlink(File file) {
+        file.delete();
+    }
+
+    private static void unlinkMatching(File dir, Pattern names) {
+        File[] files = dir.listFiles((d, name) -> names.matcher(name).matches());
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+    }
+
+    private static List<File> findOutputs(File dir, Pattern names, long since) {
+        List<File> outputs = new ArrayList<>();
+        File[] files = dir.listFiles((d, name) -> names.matcher(name).matches());
+        if (files != null) {
+            for (File f : files) {
+                // toleransi 1 detik untuk file system dengan resolusi waktu kasar
+                if (f.isFile() && f.lastModified() >= since - 1000) {
+                    outputs.add(f);
+                }
+            }
+        }
+        return outputs;
+    }
+}
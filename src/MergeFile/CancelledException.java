@@ -0,0 +1,13 @@
+package MergeFile;
+
+import java.io.IOException;
+
+// Dilempar dari dalam baca/tulis PDFBox saat job dibatalkan, supaya proses yang panjang
+// (parsing sumber besar, simpan hasil) berhenti di tengah jalan, bukan setelah selesai.
+// Turunan IOException karena harus lewat method PDFBox yang hanya boleh melempar IOException.
+final class CancelledException extends IOException {
+
+    CancelledException() {
+        super("Dibatalkan");
+    }
+}
@@ -0,0 +1,112 @@
+package MergeFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// Mode pantau folder: scanner menaruh file <nomor>_<n>.pdf sepanjang hari, yang digabung ulang
+// hanya grup yang berubah. Event dikumpulkan sampai folder tenang selama debounceMillis
+// (file yang masih ditulis terus memicu event MODIFY), baru grupnya diserahkan ke Handler.
+// Berjalan di thread pemanggil sampai thread itu di-interrupt atau close() dipanggil.
+final class FolderWatcher implements AutoCloseable {
+
+    interface Handler {
+
+        // groups: nomor grup → semua file PDF grup itu saat ini (kosong = semua file grup sudah dihapus)
+        void groupsChanged(Map<String, List<File>> groups) throws InterruptedException;
+    }
+
+    private final File dir;
+    private final long debounceMillis;
+    private final WatchService watchService;
+
+    FolderWatcher(File dir, long debounceMillis) throws IOException {
+        this.dir = dir;
+        this.debounceMillis = debounceMillis;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        dir.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    void run(Handler handler) throws IOException, InterruptedException {
+        Set<String> pending = new HashSet<>();
+        boolean rescanAll = false;
+        long firstPending = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                boolean idle = pending.isEmpty() && !rescanAll;
+                // folder yang tidak pernah tenang tetap diproses paling lambat tiap 10x debounce
+                boolean overdue = !idle && System.currentTimeMillis() - firstPending > debounceMillis * 10;
+                // tidak ada yang tertunda → tunggu tanpa batas, ada → tunggu sampai folder tenang
+                WatchKey key = overdue ? null
+                        : idle ? watchService.take() : watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    handler.groupsChanged(currentGroups(rescanAll ? null : pending));
+                    pending.clear();
+                    rescanAll = false;
+                    continue;
+                }
+                if (idle) {
+                    firstPending = System.currentTimeMillis();
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        rescanAll = true; // event hilang, tidak tahu grup mana yang berubah
+                        continue;
+                    }
+                    String name = ((Path) event.context()).getFileName().toString();
+                    if (name.toLowerCase().endsWith(".pdf")) {
+                        pending.add(BatchEngine.groupKey(name));
+                    }
+                }
+                if (!key.reset()) {
+                    throw new IOException("Folder pantauan tidak bisa diakses lagi: " + dir);
+                }
+            }
+        } catch (ClosedWatchServiceException ex) {
+            // close() dari thread lain
+        }
+        throw new InterruptedException();
+    }
+
+    // null = semua grup di folder
+    private Map<String, List<File>> currentGroups(Set<String> groups) {
+        Map<String, List<File>> result = new TreeMap<>();
+        if (groups != null) {
+            for (String group : groups) {
+                result.put(group, new ArrayList<>());
+            }
+        }
+        File[] files = dir.listFiles((d, name) -> name.toLowerCase().endsWith(".pdf"));
+        if (files != null) {
+            for (File f : files) {
+                String group = BatchEngine.groupKey(f.getName());
+                if (groups == null || groups.contains(group)) {
+                    result.computeIfAbsent(group, k -> new ArrayList<>()).add(f);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
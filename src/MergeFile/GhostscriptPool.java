@@ -0,0 +1,348 @@
+package MergeFile;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Menjalankan banyak proses Ghostscript sekaligus (maksimal N proses).
+// Output tiap proses dibaca di thread sendiri, jadi proses tidak pernah macet karena buffer penuh,
+// dan tiap proses punya batas waktu.
+final class GhostscriptPool {
+
+    private static final String CONTEXT = "Kompres PDF";
+
+    // urutan mode target ukuran: kualitas terbaik dulu, lalu makin kecil
+    private static final String[] TARGET_LEVELS = {"/prepress", "/printer", "/ebook", "/screen"};
+    // kalau /screen masih terlalu besar, resolusi gambar diturunkan lagi (DPI)
+    private static final int[] TARGET_IMAGE_DPI = {100, 72, 50};
+
+    enum Status {
+        OK, FAILED, TIMEOUT, CANCELLED
+    }
+
+    static final class Result {
+
+        final Status status;
+        final int exitCode;
+
+        Result(Status status, int exitCode) {
+            this.status = status;
+            this.exitCode = exitCode;
+        }
+    }
+
+    private final String gsPath;
+    private final String compressionLevel;
+    private final int processes;
+    private final int timeoutSec; // 0 = tanpa batas waktu
+    private final int maxPdfSizeKb;
+    private final JobMetrics metrics;
+    private final JobListener listener;
+
+    private boolean targetSizeMode = false;
+    private boolean imageDpiOverride = false;
+
+    GhostscriptPool(String gsPath, String compressionLevel, int processes, int timeoutSec,
+            int maxPdfSizeKb, JobMetrics metrics, JobListener listener) {
+        this.gsPath = gsPath;
+        this.compressionLevel = compressionLevel;
+        this.processes = Math.max(1, processes);
+        this.timeoutSec = timeoutSec;
+        this.maxPdfSizeKb = maxPdfSizeKb;
+        this.metrics = metrics;
+        this.listener = listener;
+    }
+
+    // mode target ukuran: coba level dari kualitas terbaik sampai hasil <= maxPdfSizeKb
+    void setTargetSizeMode(boolean targetSizeMode, boolean imageDpiOverride) {
+        this.targetSizeMode = targetSizeMode;
+        this.imageDpiOverride = imageDpiOverride;
+    }
+
+    // kompres tiap file ke outFiles.get(file), maksimal "processes" gs jalan bersamaan
+    void compressAll(List<File> files, Map<File, File> outFiles) throws InterruptedException {
+        int total = files.size();
+        int threads = Math.min(processes, Math.max(1, total));
+        listener.log("⚙️ Kompres " + total + " file dengan " + threads + " proses Ghostscript");
+        // sisa slot proses dipakai untuk mencoba beberapa level sekaligus per file
+        int candidatesPerFile = Math.max(1, processes / threads);
+        if (targetSizeMode) {
+            listener.log("🎯 Mode target ukuran: maks " + maxPdfSizeKb + " KB, "
+                    + candidatesPerFile + " percobaan paralel per file");
+        }
+
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong bytesIn = new AtomicLong();
+        AtomicLong bytesOut = new AtomicLong();
+        Object progressLock = new Object();
+        int[] lastProgress = {0};
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (File pdfFile : files) {
+                futures.add(pool.submit(() -> {
+                    if (listener.isCancelled()) {
+                        return null;
+                    }
+                    File outFile = outFiles.get(pdfFile);
+                    try {
+                        long started = System.nanoTime();
+                        Result result;
+                        JobMetrics.Span ghostscriptSpan = metrics.span("ghostscript", pdfFile);
+                        try {
+                            result = targetSizeMode
+                                    ? compressToTarget(pdfFile, outFile, candidatesPerFile)
+                                    : compress(pdfFile, outFile, compressionLevel, null);
+                        } finally {
+                            ghostscriptSpan.end();
+                        }
+                        if (result.status == Status.OK) {
+                            metrics.input(pdfFile);
+                            metrics.output(outFile);
+                            // jumlah halaman tidak diketahui tanpa membuka PDF-nya
+                            metrics.done(pdfFile, outFile.getPath(), -1, outFile.length(), System.nanoTime() - started);
+                            bytesIn.addAndGet(pdfFile.length());
+                            bytesOut.addAndGet(outFile.length());
+                            long fileSizeKb = outFile.length() / 1024;
+                            if (fileSizeKb > maxPdfSizeKb) {
+                                listener.log("⚠️ Ukuran hasil " + outFile.getName() + ": " + fileSizeKb
+                                        + " KB (target " + maxPdfSizeKb + " KB)");
+                            } else {
+                                listener.log("✔️ File terkompresi: " + outFile.getName() + " (" + fileSizeKb + " KB)");
+                            }
+                        } else if (result.status == Status.TIMEOUT) {
+                            failed.incrementAndGet();
+                            listener.error(CONTEXT, new RuntimeException("Timeout " + timeoutSec + " detik"), pdfFile);
+                        } else if (result.status == Status.FAILED) {
+                            failed.incrementAndGet();
+                            listener.error(CONTEXT, new RuntimeException("Exit code: " + result.exitCode), pdfFile);
+                        }
+                    } catch (IOException ex) {
+                        failed.incrementAndGet();
+                        listener.error(CONTEXT, ex, pdfFile);
+                    }
+
+                    int count = done.incrementAndGet();
+                    synchronized (progressLock) {
+                        int progress = (int) ((count * 100.0f) / total);
+                        if (progress > lastProgress[0]) {
+                            lastProgress[0] = progress;
+                            listener.progress(progress);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            pool.shutdown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ex) {
+                    listener.log("❌ Error kompres: " + ex.getCause().getMessage());
+                }
+            }
+        } finally {
+            // interrupt juga mematikan proses gs yang sedang jalan (lihat compress)
+            pool.shutdownNow();
+        }
+
+        listener.log("📊 Kompres: " + (done.get() - failed.get()) + " berhasil, " + failed.get() + " gagal, "
+                + (bytesIn.get() / 1024) + " KB → " + (bytesOut.get() / 1024) + " KB");
+    }
+
+    // Coba kandidat berurutan (kualitas terbaik dulu), maksimal "parallel" proses sekaligus.
+    // Hasil dibaca sesuai urutan, jadi yang dipilih tetap kandidat pertama yang <= target;
+    // kandidat sesudahnya yang masih jalan dimatikan dan hasilnya dibuang.
+    Result compressToTarget(File pdfFile, File outFile, int parallel) throws IOException, InterruptedException {
+        List<String[]> candidates = new ArrayList<>();
+        for (String level : TARGET_LEVELS) {
+            candidates.add(new String[]{level, null});
+        }
+        if (imageDpiOverride) {
+            for (int dpi : TARGET_IMAGE_DPI) {
+                candidates.add(new String[]{"/screen", String.valueOf(dpi)});
+            }
+        }
+
+        String baseName = outFile.getName().replaceFirst("[.][^.]+$", "");
+        File[] outputs = new File[candidates.size()];
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = new File(outFile.getParentFile(), baseName + ".try" + i + ".pdf");
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallel, candidates.size()));
+        List<Future<Result>> futures = new ArrayList<>();
+        int submitted = 0;
+        int winner = -1;
+        int smallest = -1;
+        int chosen = -1;
+        Result lastFailure = new Result(Status.FAILED, -1);
+        try {
+            for (int i = 0; i < candidates.size(); i++) {
+                // jendela geser: kandidat baru baru dijalankan kalau ada slot kosong
+                while (submitted < candidates.size() && submitted < i + parallel) {
+                    String[] candidate = candidates.get(submitted);
+                    File candidateOut = outputs[submitted];
+                    futures.add(pool.submit(() -> compress(pdfFile, candidateOut, candidate[0], imageDpiArgs(candidate[1]))));
+                    submitted++;
+                }
+
+                Result result;
+                try {
+                    result = futures.get(i).get();
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                }
+                if (result.status == Status.CANCELLED) {
+                    return result;
+                }
+                if (result.status != Status.OK) {
+                    lastFailure = result;
+                    continue;
+                }
+                if (outputs[i].length() / 1024 <= maxPdfSizeKb) {
+                    winner = i;
+                    break;
+                }
+                if (smallest < 0 || outputs[i].length() < outputs[smallest].length()) {
+                    smallest = i;
+                }
+            }
+            chosen = winner >= 0 ? winner : smallest;
+            if (chosen < 0) {
+                return lastFailure;
+            }
+        } finally {
+            try {
+                // kandidat yang masih jalan di-interrupt → proses gs-nya dimatikan (lihat compress)
+                pool.shutdownNow();
+                pool.awaitTermination(10, TimeUnit.SECONDS);
+            } finally {
+                // juga saat gagal, dibatalkan atau di-interrupt: tidak ada .tryN.pdf yang tertinggal
+                for (int i = 0; i < outputs.length; i++) {
+                    if (i != chosen) {
+                        outputs[i].delete();
+                    }
+                }
+            }
+        }
+        try {
+            Files.move(outputs[chosen].toPath(), outFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            outputs[chosen].delete();
+            throw ex;
+        }
+
+        String[] picked = candidates.get(chosen);
+        String label = picked[0] + (picked[1] != null ? " @" + picked[1] + " DPI" : "");
+        if (winner >= 0) {
+            listener.log("🎯 " + outFile.getName() + ": level " + label + " memenuhi target");
+        } else {
+            listener.log("⚠️ " + outFile.getName() + ": tidak ada level yang memenuhi target, dipakai hasil terkecil (" + label + ")");
+        }
+        return new Result(Status.OK, 0);
+    }
+
+    private static List<String> imageDpiArgs(String dpi) {
+        if (dpi == null) {
+            return null;
+        }
+        return Arrays.asList(
+                "-dDownsampleColorImages=true",
+                "-dDownsampleGrayImages=true",
+                "-dDownsampleMonoImages=true",
+                "-dColorImageResolution=" + dpi,
+                "-dGrayImageResolution=" + dpi,
+                "-dMonoImageResolution=" + dpi,
+                "-dColorImageDownsampleThreshold=1.0",
+                "-dGrayImageDownsampleThreshold=1.0");
+    }
+
+    // satu proses gs; extraArgs boleh null (mis. override resolusi gambar)
+    Result compress(File pdfFile, File outFile, String level, List<String> extraArgs)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(gsPath); // gunakan path yang dipilih user, default "gs"
+        command.add("-sDEVICE=pdfwrite");
+        command.add("-dCompatibilityLevel=1.4");
+        command.add("-dPDFSETTINGS=" + level); // /screen, /ebook, /printer, /prepress
+        if (extraArgs != null) {
+            command.addAll(extraArgs);
+        }
+        command.add("-dNOPAUSE");
+        command.add("-dQUIET");
+        command.add("-dBATCH");
+        command.add("-sOutputFile=" + outFile.getAbsolutePath());
+        command.add(pdfFile.getAbsolutePath());
+
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.redirectErrorStream(true);
+        Process process = pb.start();
+
+        // baca log GS di thread terpisah, tanpa jeda
+        Thread drainer = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    listener.log("GS [" + pdfFile.getName() + "]: " + line);
+                }
+            } catch (IOException ignored) {
+                // stream ditutup karena proses dimatikan
+            }
+        }, "gs-output");
+        drainer.setDaemon(true);
+        drainer.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSec);
+        try {
+            while (!process.waitFor(200, TimeUnit.MILLISECONDS)) {
+                if (listener.isCancelled()) {
+                    kill(process, outFile);
+                    return new Result(Status.CANCELLED, -1);
+                }
+                if (timeoutSec > 0 && System.nanoTime() - deadline > 0) {
+                    kill(process, outFile);
+                    return new Result(Status.TIMEOUT, -1);
+                }
+            }
+        } catch (InterruptedException ex) {
+            kill(process, outFile);
+            throw ex;
+        }
+        drainer.join(1000);
+
+        int exitCode = process.exitValue();
+        if (exitCode != 0) {
+            outFile.delete(); // jangan tinggalkan hasil setengah jadi
+            return new Result(Status.FAILED, exitCode);
+        }
+        return new Result(Status.OK, 0);
+    }
+
+    private static void kill(Process process, File outFile) {
+        process.destroyForcibly();
+        try {
+            process.waitFor(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        outFile.delete();
+    }
+}
@@ -0,0 +1,271 @@
+package MergeFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Daftar grup untuk gabung mode folder, disimpan di file sementara dan sudah terurut,
+// supaya jumlah file per batch tidak dibatasi heap. Tiap entri menyimpan kunci urut
+// "natural" (angka dibandingkan sebagai angka, jadi _2 sebelum _10) yang dihitung sekali.
+// Entri dikumpulkan per 100 ribu, diurutkan dan ditulis sebagai run, lalu semua run
+// digabung (merge sort eksternal). Saat dibaca, yang ada di memori hanya satu grup.
+final class GroupManifest implements AutoCloseable {
+
+    private static final int RUN_SIZE = 100_000;
+
+    // nama grup asli ikut dibandingkan: "A" dan "a" (atau "01" dan "1") kuncinya sama tapi grupnya beda
+    private static final Comparator<Entry> ORDER = Comparator.<Entry, String>comparing(e -> e.groupSortKey)
+            .thenComparing(e -> e.group)
+            .thenComparing(e -> e.nameSortKey)
+            .thenComparing(e -> e.path);
+
+    private final File file;
+    private final int groupCount;
+    private final long fileCount;
+
+    private GroupManifest(File file, int groupCount, long fileCount) {
+        this.file = file;
+        this.groupCount = groupCount;
+        this.fileCount = fileCount;
+    }
+
+    int getGroupCount() {
+        return groupCount;
+    }
+
+    long getFileCount() {
+        return fileCount;
+    }
+
+    Reader open() throws IOException {
+        return new Reader(file);
+    }
+
+    @Override
+    public void close() {
+        file.delete();
+    }
+
+    // Kunci urut natural: deret angka ditulis sebagai panjangnya (3 digit) lalu angkanya
+    // tanpa nol di depan, huruf dibandingkan tanpa beda besar/kecil.
+    // Contoh: "scan_2" → "scan_0012", "scan_10" → "scan_00210".
+    static String naturalKey(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 8);
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int end = i;
+                while (end < n && text.charAt(end) >= '0' && text.charAt(end) <= '9') {
+                    end++;
+                }
+                int start = i;
+                while (start < end - 1 && text.charAt(start) == '0') {
+                    start++;
+                }
+                int len = Math.min(end - start, 999);
+                sb.append((char) ('0' + len / 100)).append((char) ('0' + len / 10 % 10)).append((char) ('0' + len % 10));
+                sb.append(text, start, end);
+                i = end;
+            } else {
+                sb.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    // ===== Menyusun manifest =====
+    static final class Builder implements AutoCloseable {
+
+        private final File tempDir;
+        private final List<Entry> buffer = new ArrayList<>();
+        private final List<File> runs = new ArrayList<>();
+
+        Builder() {
+            this(new File(System.getProperty("java.io.tmpdir")));
+        }
+
+        Builder(File tempDir) {
+            this.tempDir = tempDir;
+        }
+
+        void add(File pdf) throws IOException {
+            String group = BatchEngine.groupKey(pdf.getName());
+            buffer.add(new Entry(naturalKey(group), group, naturalKey(pdf.getName()), pdf.getPath()));
+            if (buffer.size() >= RUN_SIZE) {
+                spill();
+            }
+        }
+
+        private void spill() throws IOException {
+            buffer.sort(ORDER);
+            File run = File.createTempFile("grup-run-", ".bin", tempDir);
+            runs.add(run);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run), 1 << 16))) {
+                for (Entry e : buffer) {
+                    e.write(out);
+                }
+            }
+            buffer.clear();
+        }
+
+        GroupManifest build() throws IOException {
+            spill();
+            File target = File.createTempFile("grup-", ".manifest", tempDir);
+            int groups = 0;
+            long files = 0;
+            List<RunReader> readers = new ArrayList<>();
+            PriorityQueue<RunReader> heads = new PriorityQueue<>((a, b) -> ORDER.compare(a.head, b.head));
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(target), 1 << 16))) {
+                for (File run : runs) {
+                    RunReader reader = new RunReader(run);
+                    readers.add(reader);
+                    if (reader.advance()) {
+                        heads.add(reader);
+                    }
+                }
+                String lastGroup = null;
+                while (!heads.isEmpty()) {
+                    RunReader reader = heads.poll();
+                    Entry e = reader.head;
+                    if (!e.group.equals(lastGroup)) {
+                        groups++;
+                        lastGroup = e.group;
+                    }
+                    files++;
+                    e.write(out);
+                    if (reader.advance()) {
+                        heads.add(reader);
+                    }
+                }
+            } catch (IOException ex) {
+                target.delete();
+                throw ex;
+            } finally {
+                for (RunReader reader : readers) {
+                    reader.close();
+                }
+                close();
+            }
+            return new GroupManifest(target, groups, files);
+        }
+
+        @Override
+        public void close() {
+            for (File run : runs) {
+                run.delete();
+            }
+            runs.clear();
+            buffer.clear();
+        }
+    }
+
+    // ===== Membaca per grup =====
+    static final class Group {
+
+        final String key;
+        final List<File> files;
+
+        Group(String key, List<File> files) {
+            this.key = key;
+            this.files = files;
+        }
+    }
+
+    static final class Reader implements AutoCloseable {
+
+        private final DataInputStream in;
+        private Entry pending;
+
+        private Reader(File file) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+            pending = Entry.read(in);
+        }
+
+        // null = tidak ada grup lagi; file dalam grup sudah urut natural
+        Group nextGroup() throws IOException {
+            if (pending == null) {
+                return null;
+            }
+            String group = pending.group;
+            List<File> files = new ArrayList<>();
+            while (pending != null && pending.group.equals(group)) {
+                files.add(new File(pending.path));
+                pending = Entry.read(in);
+            }
+            return new Group(group, files);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static final class RunReader {
+
+        private final DataInputStream in;
+        private Entry head;
+
+        RunReader(File run) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(run), 1 << 16));
+        }
+
+        boolean advance() throws IOException {
+            head = Entry.read(in);
+            return head != null;
+        }
+
+        void close() {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        final String groupSortKey;
+        final String group;
+        final String nameSortKey;
+        final String path;
+
+        Entry(String groupSortKey, String group, String nameSortKey, String path) {
+            this.groupSortKey = groupSortKey;
+            this.group = group;
+            this.nameSortKey = nameSortKey;
+            this.path = path;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(groupSortKey);
+            out.writeUTF(group);
+            out.writeUTF(nameSortKey);
+            out.writeUTF(path);
+        }
+
+        // null = akhir file
+        static Entry read(DataInputStream in) throws IOException {
+            String groupSortKey;
+            try {
+                groupSortKey = in.readUTF();
+            } catch (EOFException ex) {
+                return null;
+            }
+            return new Entry(groupSortKey, in.readUTF(), in.readUTF(), in.readUTF());
+        }
+    }
+}
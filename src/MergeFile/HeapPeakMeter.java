@@ -0,0 +1,53 @@
+package MergeFile;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Puncak heap terpakai selama satu proses (gabung, job): heap terpakai diambil sampelnya tiap
+// SAMPLE_MS dari start() sampai stop() dan yang terbesar disimpan. Bukan peak pool MXBean: peak
+// pool berlaku sejak JVM start (atau reset global) dan puncak tiap pool terjadi di waktu berbeda,
+// jadi jumlahnya terlalu besar. Heap dipakai bersama, jadi job lain yang jalan bersamaan ikut terhitung.
+final class HeapPeakMeter {
+
+    private static final long SAMPLE_MS = 50;
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    // satu thread sampler untuk semua meter yang aktif
+    private static final ScheduledExecutorService SAMPLER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "heap-sampler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicLong peakBytes = new AtomicLong();
+    private final ScheduledFuture<?> task;
+
+    private HeapPeakMeter() {
+        sample();
+        task = SAMPLER.scheduleAtFixedRate(this::sample, SAMPLE_MS, SAMPLE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    static HeapPeakMeter start() {
+        return new HeapPeakMeter();
+    }
+
+    private void sample() {
+        peakBytes.accumulateAndGet(MEMORY.getHeapMemoryUsage().getUsed(), Math::max);
+    }
+
+    // berhenti mengambil sampel dan kembalikan puncaknya; boleh dipanggil lebih dari sekali
+    long stop() {
+        if (task.cancel(false)) {
+            sample();
+        }
+        return peakMb();
+    }
+
+    long peakMb() {
+        return peakBytes.get() / (1024 * 1024);
+    }
+}
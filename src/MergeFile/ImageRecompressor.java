@@ -0,0 +1,315 @@
+package MergeFile;
+
+import org.apache.pdfbox.contentstream.PDFStreamEngine;
+import org.apache.pdfbox.contentstream.operator.DrawObject;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.contentstream.operator.state.Concatenate;
+import org.apache.pdfbox.contentstream.operator.state.Restore;
+import org.apache.pdfbox.contentstream.operator.state.Save;
+import org.apache.pdfbox.contentstream.operator.state.SetGraphicsStateParameters;
+import org.apache.pdfbox.contentstream.operator.state.SetMatrix;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.color.PDCalGray;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import org.apache.pdfbox.pdmodel.graphics.color.PDDeviceGray;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.util.Matrix;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Kompres PDF tanpa Ghostscript: gambar di tiap halaman diperkecil ke DPI target
+// lalu di-encode ulang sebagai JPG memakai PDFBox. Tidak ada proses eksternal,
+// dan satu file = satu PDDocument, jadi aman dijalankan paralel antar file.
+final class ImageRecompressor {
+
+    private static final String CONTEXT = "Kompres PDF (Java)";
+
+    private final int targetDpi;
+    private final float jpegQuality;
+    private final int maxPdfSizeKb;
+    private final PdfInput input;
+    private final JobMetrics metrics;
+    private final JobListener listener;
+
+    ImageRecompressor(int targetDpi, float jpegQuality, int maxPdfSizeKb, PdfInput input, JobMetrics metrics,
+            JobListener listener) {
+        this.targetDpi = targetDpi;
+        this.jpegQuality = jpegQuality;
+        this.maxPdfSizeKb = maxPdfSizeKb;
+        this.input = input;
+        this.metrics = metrics;
+        this.listener = listener;
+    }
+
+    void compressAll(List<File> files, Map<File, File> outFiles, int threads) throws InterruptedException {
+        int total = files.size();
+        int poolSize = Math.max(1, Math.min(threads, total));
+        listener.log("⚙️ Kompres (Java) " + total + " file dengan " + poolSize + " thread, gambar maks "
+                + targetDpi + " DPI");
+
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger imagesReplaced = new AtomicInteger();
+        AtomicLong bytesIn = new AtomicLong();
+        AtomicLong bytesOut = new AtomicLong();
+        Object progressLock = new Object();
+        int[] lastProgress = {0};
+
+        ExecutorService pool = Executors.newFixedThreadPool(poolSize);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (File pdfFile : files) {
+                futures.add(pool.submit(() -> {
+                    if (listener.isCancelled()) {
+                        return null;
+                    }
+                    File outFile = outFiles.get(pdfFile);
+                    try {
+                        int replaced = compress(pdfFile, outFile);
+                        imagesReplaced.addAndGet(replaced);
+                        bytesIn.addAndGet(pdfFile.length());
+                        bytesOut.addAndGet(outFile.length());
+                        long fileSizeKb = outFile.length() / 1024;
+                        if (fileSizeKb > maxPdfSizeKb) {
+                            listener.log("⚠️ Ukuran hasil " + outFile.getName() + ": " + fileSizeKb
+                                    + " KB (target " + maxPdfSizeKb + " KB)");
+                        } else {
+                            listener.log("✔️ File terkompresi: " + outFile.getName() + " (" + fileSizeKb + " KB, "
+                                    + replaced + " gambar)");
+                        }
+                    } catch (CancelledException ex) {
+                        outFile.delete();
+                        return null;
+                    } catch (Exception ex) {
+                        outFile.delete();
+                        if (listener.isCancelled()) {
+                            return null;
+                        }
+                        failed.incrementAndGet();
+                        listener.error(CONTEXT, ex, pdfFile);
+                    }
+
+                    int count = done.incrementAndGet();
+                    synchronized (progressLock) {
+                        int progress = (int) ((count * 100.0f) / total);
+                        if (progress > lastProgress[0]) {
+                            lastProgress[0] = progress;
+                            listener.progress(progress);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            pool.shutdown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ex) {
+                    listener.log("❌ Error kompres: " + ex.getCause().getMessage());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        listener.log("📊 Kompres (Java): " + (done.get() - failed.get()) + " berhasil, " + failed.get() + " gagal, "
+                + imagesReplaced.get() + " gambar diganti, "
+                + (bytesIn.get() / 1024) + " KB → " + (bytesOut.get() / 1024) + " KB");
+    }
+
+    // kompres satu file, hasilnya jumlah gambar yang diganti
+    int compress(File pdfFile, File outFile) throws IOException {
+        long started = System.nanoTime();
+        PDDocument opened;
+        JobMetrics.Span parseSpan = metrics.span("parse", pdfFile);
+        try {
+            opened = input.open(pdfFile);
+        } finally {
+            parseSpan.end();
+        }
+        metrics.input(pdfFile);
+        try (PDDocument document = opened) {
+            metrics.pages(document.getNumberOfPages());
+            // gambar yang dipakai di banyak halaman cukup diproses sekali
+            Map<COSStream, PDImageXObject> replacements = new IdentityHashMap<>();
+            Set<COSStream> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+            int replaced = 0;
+
+            JobMetrics.Span recompressSpan = metrics.span("recompress", pdfFile);
+            try {
+                // resources sering dipakai bersama / diwarisi dari page tree, jadi DPI tiap gambar
+                // dikumpulkan dulu dari semua halaman (DPI terkecil), baru gambar diganti
+                ImageUsageCollector usage = new ImageUsageCollector();
+                for (PDPage page : document.getPages()) {
+                    if (listener.isCancelled()) {
+                        throw new CancelledException();
+                    }
+                    usage.processPage(page);
+                }
+                for (PDPage page : document.getPages()) {
+                    if (listener.isCancelled()) {
+                        throw new CancelledException();
+                    }
+                    replaced += replaceImages(document, page.getResources(), usage.effectiveDpi,
+                            replacements, skipped, new HashSet<>());
+                }
+            } finally {
+                recompressSpan.end();
+            }
+
+            JobMetrics.Span saveSpan = metrics.span("save", pdfFile);
+            try {
+                document.save(outFile);
+            } finally {
+                saveSpan.end();
+            }
+            metrics.output(outFile);
+            metrics.done(pdfFile, outFile.getPath(), document.getNumberOfPages(), outFile.length(),
+                    System.nanoTime() - started);
+            return replaced;
+        }
+    }
+
+    private int replaceImages(PDDocument document, PDResources resources, Map<COSStream, Float> effectiveDpi,
+            Map<COSStream, PDImageXObject> replacements, Set<COSStream> skipped, Set<COSStream> visitedForms)
+            throws IOException {
+        if (resources == null) {
+            return 0;
+        }
+        int replaced = 0;
+        for (COSName name : resources.getXObjectNames()) {
+            PDXObject xobject = resources.getXObject(name);
+            if (xobject instanceof PDFormXObject) {
+                PDFormXObject form = (PDFormXObject) xobject;
+                if (visitedForms.add(form.getCOSObject())) {
+                    replaced += replaceImages(document, form.getResources(), effectiveDpi,
+                            replacements, skipped, visitedForms);
+                }
+            } else if (xobject instanceof PDImageXObject) {
+                COSStream original = ((PDImageXObject) xobject).getCOSObject();
+                PDImageXObject replacement = replacements.get(original);
+                if (replacement == null && !skipped.contains(original)) {
+                    replacement = recompress(document, (PDImageXObject) xobject, effectiveDpi.get(original));
+                    if (replacement == null) {
+                        skipped.add(original);
+                    } else {
+                        replacements.put(original, replacement);
+                        replaced++;
+                    }
+                }
+                if (replacement != null) {
+                    resources.put(name, replacement);
+                }
+            }
+        }
+        return replaced;
+    }
+
+    // null = gambar dibiarkan apa adanya
+    private PDImageXObject recompress(PDDocument document, PDImageXObject image, Float dpi) throws IOException {
+        if (dpi == null) {
+            return null; // tidak digambar di halaman mana pun (DPI dari semua halaman)
+        }
+        // mask, stencil dan gambar 1-bit (scan hitam putih, CCITT/JBIG2) tidak cocok jadi JPG
+        if (image.isStencil() || image.getBitsPerComponent() == 1
+                || image.getCOSObject().containsKey(COSName.SMASK)
+                || image.getCOSObject().containsKey(COSName.MASK)) {
+            return null;
+        }
+
+        float scale = dpi > targetDpi ? targetDpi / dpi : 1f;
+        List<COSName> filters = image.getStream().getFilters();
+        if (scale >= 1f && filters.contains(COSName.DCT_DECODE)) {
+            return null; // sudah JPG dan resolusinya tidak berlebih
+        }
+
+        BufferedImage source = image.getImage();
+        int width = Math.max(1, Math.round(source.getWidth() * scale));
+        int height = Math.max(1, Math.round(source.getHeight() * scale));
+        // Indexed/Separation juga satu komponen, tapi hasilnya berwarna
+        PDColorSpace colorSpace = image.getColorSpace();
+        boolean gray = colorSpace instanceof PDDeviceGray || colorSpace instanceof PDCalGray;
+
+        BufferedImage scaled = new BufferedImage(width, height,
+                gray ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        PDImageXObject jpg = JPEGFactory.createFromImage(document, scaled, jpegQuality);
+        // hanya dipakai kalau memang lebih kecil dari aslinya
+        if (jpg.getCOSObject().getLength() >= image.getCOSObject().getLength()) {
+            return null;
+        }
+        return jpg;
+    }
+
+    // Mencatat resolusi efektif (DPI) tiap gambar dari ukuran tampilnya di halaman (CTM saat "Do").
+    // Kalau satu gambar tampil di beberapa tempat, dipakai DPI terkecil supaya tidak terlalu buram.
+    private static final class ImageUsageCollector extends PDFStreamEngine {
+
+        final Map<COSStream, Float> effectiveDpi = new IdentityHashMap<>();
+
+        ImageUsageCollector() {
+            addOperator(new Concatenate());
+            addOperator(new DrawObject());
+            addOperator(new SetGraphicsStateParameters());
+            addOperator(new Save());
+            addOperator(new Restore());
+            addOperator(new SetMatrix());
+        }
+
+        @Override
+        protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+            if ("Do".equals(operator.getName()) && !operands.isEmpty() && operands.get(0) instanceof COSName) {
+                PDXObject xobject = getResources().getXObject((COSName) operands.get(0));
+                if (xobject instanceof PDImageXObject) {
+                    PDImageXObject image = (PDImageXObject) xobject;
+                    Matrix ctm = getGraphicsState().getCurrentTransformationMatrix();
+                    float widthInch = Math.abs(ctm.getScalingFactorX()) / 72f;
+                    float heightInch = Math.abs(ctm.getScalingFactorY()) / 72f;
+                    if (widthInch > 0 && heightInch > 0) {
+                        float dpi = Math.min(image.getWidth() / widthInch, image.getHeight() / heightInch);
+                        effectiveDpi.merge(image.getCOSObject(), dpi, Math::min);
+                    }
+                    return;
+                }
+                if (xobject instanceof PDFormXObject) {
+                    showForm((PDFormXObject) xobject);
+                    return;
+                }
+            }
+            super.processOperator(operator, operands);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package MergeFile;
+
+import java.io.File;
+
+// Jembatan dari mesin proses ke pemanggil (SwingWorker di GUI).
+// Semua method boleh dipanggil dari thread mana saja.
+interface JobListener {
+
+    void log(String message);
+
+    void error(String context, Exception ex, File file);
+
+    void progress(int percent);
+
+    boolean isCancelled();
+}
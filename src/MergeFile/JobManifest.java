@@ -0,0 +1,149 @@
+package MergeFile;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+
+// Manifest XLSX satu job untuk QA: tiap input (atau tiap bagian hasil split) satu baris berisi
+// hasil, halaman, ukuran, durasi dan error. Baris ditulis oleh worker begitu filenya selesai.
+// Pakai SXSSF: di memori hanya jendela WINDOW baris terakhir, sisanya langsung ke file sementara
+// (terkompresi), jadi manifest 200 ribu baris tetap kecil di heap. Lewat batas baris Excel
+// pindah ke sheet berikutnya.
+final class JobManifest implements Closeable {
+
+    private static final int WINDOW = 200;
+    private static final int MAX_ROWS = 1_048_576; // batas baris per sheet di Excel
+    private static final String[] HEADERS = {
+        "Waktu", "Input", "Hasil", "Halaman", "Ukuran Input (byte)", "Ukuran Hasil (byte)",
+        "Durasi (ms)", "Status", "Keterangan"};
+    private static final int[] WIDTHS = {20, 60, 60, 10, 18, 18, 12, 12, 50}; // dalam karakter
+
+    static {
+        // POI log lewat log4j-api; tanpa log4j-core muncul pesan "could not find a logging implementation"
+        // di stderr. Logger sederhana bawaan log4j-api cukup (hanya level ERROR yang ditampilkan).
+        if (System.getProperty("log4j2.loggerContextFactory") == null) {
+            System.setProperty("log4j2.loggerContextFactory", "org.apache.logging.log4j.simple.SimpleLoggerContextFactory");
+        }
+    }
+
+    private final SXSSFWorkbook workbook = new SXSSFWorkbook(WINDOW);
+    private final CellStyle headerStyle;
+    private final CellStyle timeStyle;
+    private final CellStyle numberStyle;
+    private SXSSFSheet sheet;
+    private int sheetCount = 0;
+    private int nextRow;
+    private long rows = 0;
+
+    JobManifest() {
+        workbook.setCompressTempFiles(true);
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        headerStyle = workbook.createCellStyle();
+        headerStyle.setFont(bold);
+        timeStyle = workbook.createCellStyle();
+        timeStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+        numberStyle = workbook.createCellStyle();
+        numberStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0"));
+        newSheet();
+    }
+
+    private void newSheet() {
+        finishSheet();
+        sheetCount++;
+        sheet = workbook.createSheet(sheetCount == 1 ? "Manifest" : "Manifest " + sheetCount);
+        // lebar kolom tetap: autoSize butuh semua baris di memori
+        for (int i = 0; i < WIDTHS.length; i++) {
+            sheet.setColumnWidth(i, WIDTHS[i] * 256);
+        }
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            header.createCell(i).setCellValue(HEADERS[i]);
+            header.getCell(i).setCellStyle(headerStyle);
+        }
+        sheet.createFreezePane(0, 1);
+        nextRow = 1;
+    }
+
+    private void finishSheet() {
+        if (sheet != null && nextRow > 1) {
+            sheet.setAutoFilter(new CellRangeAddress(0, nextRow - 1, 0, HEADERS.length - 1));
+        }
+    }
+
+    // pages < 0 = tidak diketahui (mis. Ghostscript), millis < 0 = tidak diukur
+    synchronized void add(File input, String output, int pages, long outputBytes, long millis,
+            String status, String note) {
+        if (nextRow >= MAX_ROWS) {
+            newSheet();
+        }
+        Row row = sheet.createRow(nextRow++);
+        row.createCell(0).setCellValue(new Date());
+        row.getCell(0).setCellStyle(timeStyle);
+        row.createCell(1).setCellValue(input != null ? input.getPath() : "");
+        row.createCell(2).setCellValue(output != null ? output : "");
+        if (pages >= 0) {
+            row.createCell(3).setCellValue(pages);
+        }
+        if (input != null) {
+            number(row, 4, input.length());
+        }
+        if (outputBytes >= 0) {
+            number(row, 5, outputBytes);
+        }
+        if (millis >= 0) {
+            number(row, 6, millis);
+        }
+        row.createCell(7).setCellValue(status);
+        if (note != null) {
+            row.createCell(8).setCellValue(note);
+        }
+        rows++;
+    }
+
+    private void number(Row row, int column, long value) {
+        row.createCell(column).setCellValue(value);
+        row.getCell(column).setCellStyle(numberStyle);
+    }
+
+    synchronized long getRowCount() {
+        return rows;
+    }
+
+    // ditulis ke file sementara dulu, laporan lama dengan nama sama tidak rusak kalau gagal
+    synchronized void write(File target) throws IOException {
+        finishSheet();
+        File dir = target.getAbsoluteFile().getParentFile();
+        dir.mkdirs();
+        File tmp = File.createTempFile("." + target.getName() + "-", ".part", dir);
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16)) {
+                workbook.write(out);
+            }
+            PdfOutput.moveIntoPlace(tmp, target);
+        } finally {
+            tmp.delete();
+        }
+    }
+
+    // hapus file sementara SXSSF
+    @Override
+    public synchronized void close() {
+        workbook.dispose();
+        try {
+            workbook.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package MergeFile;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Ukuran kinerja satu job: waktu per tahap (parse, impor, simpan, render, encode, tulis, gs, ...),
+// halaman, byte masuk/keluar, puncak heap selama job dan file yang paling lama diproses.
+// Dipakai dari banyak thread sekaligus. Di akhir job jadi ringkasan log dan laporan JSON;
+// tiap tahap juga dikirim sebagai event JFR (MergeFile.Stage), jadi bisa dilihat di
+// JDK Mission Control kalau aplikasi dijalankan dengan -XX:StartFlightRecording.
+final class JobMetrics {
+
+    private static final int MAX_TRACKED_FILES = 100_000; // batas memori untuk daftar file terlama
+    private static final int SLOWEST_FILES = 10;
+
+    private volatile String operation = "?";
+    private final long startMillis = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> fileNanos = new ConcurrentHashMap<>();
+    private final LongAdder pages = new LongAdder();
+    private final LongAdder filesIn = new LongAdder();
+    private final LongAdder filesOut = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile long durationNanos = -1;
+    private volatile long peakHeapMb = 0; // sampel heap dari mulai sampai selesai job ini
+    private volatile JobManifest manifest; // null = tanpa manifest XLSX
+    private final HeapPeakMeter heap = HeapPeakMeter.start(); // berhenti di finish()
+
+    void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    void setManifest(JobManifest manifest) {
+        this.manifest = manifest;
+    }
+
+    JobManifest getManifest() {
+        return manifest;
+    }
+
+    // satu baris manifest: input selesai diproses (split: satu bagian hasil); pages < 0 = tidak diketahui
+    void done(File input, String output, int pages, long outputBytes, long nanos) {
+        JobManifest m = manifest;
+        if (m != null) {
+            m.add(input, output, pages, outputBytes, nanos / 1_000_000, "OK", null);
+        }
+    }
+
+    void cached(File input, String output) {
+        JobManifest m = manifest;
+        if (m != null) {
+            m.add(input, output, -1, -1, -1, "Dari cache", null);
+        }
+    }
+
+    // Span span = metrics.span("render", file); try { ... } finally { span.end(); }
+    // (bukan try-with-resources: variabel span tidak dipakai di body → peringatan -Xlint:try)
+    Span span(String stage, File file) {
+        return new Span(stage, file);
+    }
+
+    void pages(int count) {
+        pages.add(count);
+    }
+
+    void input(File file) {
+        filesIn.increment();
+        bytesIn.add(file.length());
+    }
+
+    void output(File file) {
+        filesOut.increment();
+        bytesOut.add(file.length());
+    }
+
+    // hasil yang tidak berupa satu file (mis. JPG di memori sebelum ditulis)
+    void output(long bytes) {
+        filesOut.increment();
+        bytesOut.add(bytes);
+    }
+
+    // listener yang ikut menghitung error untuk laporan
+    JobListener counting(JobListener listener) {
+        return new JobListener() {
+            @Override
+            public void log(String message) {
+                listener.log(message);
+            }
+
+            @Override
+            public void error(String context, Exception ex, File file) {
+                errors.increment();
+                JobManifest m = manifest;
+                if (m != null) {
+                    m.add(file, null, -1, -1, -1, "Gagal",
+                            context + ": " + (ex.getMessage() != null ? ex.getMessage() : ex.toString()));
+                }
+                listener.error(context, ex, file);
+            }
+
+            @Override
+            public void progress(int percent) {
+                listener.progress(percent);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return listener.isCancelled();
+            }
+        };
+    }
+
+    void finish() {
+        durationNanos = System.nanoTime() - startNanos;
+        peakHeapMb = heap.stop();
+        JobEvent event = new JobEvent();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.files = filesIn.sum();
+            event.pages = pages.sum();
+            event.bytesIn = bytesIn.sum();
+            event.bytesOut = bytesOut.sum();
+            event.durationMillis = durationNanos / 1_000_000;
+            event.commit();
+        }
+    }
+
+    private double seconds() {
+        long nanos = durationNanos >= 0 ? durationNanos : System.nanoTime() - startNanos;
+        return Math.max(nanos, 1) / 1e9;
+    }
+
+    // beberapa baris ringkas untuk log job
+    List<String> summaryLines() {
+        List<String> lines = new ArrayList<>();
+        double sec = seconds();
+        lines.add(String.format(Locale.ROOT, "📈 %d halaman (%.1f hal/detik), %.1f MB → %.1f MB, puncak heap %d MB",
+                pages.sum(), pages.sum() / sec, bytesIn.sum() / 1048576.0, bytesOut.sum() / 1048576.0, peakHeapMb));
+        StringBuilder sb = new StringBuilder("⏱ Per tahap:");
+        for (Map.Entry<String, Stage> e : sortedStages()) {
+            sb.append(String.format(Locale.ROOT, " %s %.1f dtk (%d×)", e.getKey(),
+                    e.getValue().totalNanos.sum() / 1e9, e.getValue().count.sum()));
+        }
+        lines.add(sb.toString());
+        List<Map.Entry<String, Long>> slowest = slowestFiles();
+        if (slowest.size() > 1) {
+            Map.Entry<String, Long> top = slowest.get(0);
+            lines.add(String.format(Locale.ROOT, "🐢 Paling lama: %s (%.1f dtk)",
+                    new File(top.getKey()).getName(), top.getValue() / 1e9));
+        }
+        return lines;
+    }
+
+    private List<Map.Entry<String, Stage>> sortedStages() {
+        List<Map.Entry<String, Stage>> list = new ArrayList<>(stages.entrySet());
+        list.sort((a, b) -> Long.compare(b.getValue().totalNanos.sum(), a.getValue().totalNanos.sum()));
+        return list;
+    }
+
+    private List<Map.Entry<String, Long>> slowestFiles() {
+        List<Map.Entry<String, Long>> list = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> e : fileNanos.entrySet()) {
+            list.add(Map.entry(e.getKey(), e.getValue().sum()));
+        }
+        list.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        return list.subList(0, Math.min(SLOWEST_FILES, list.size()));
+    }
+
+    String toJson(boolean cancelled) {
+        double sec = seconds();
+        StringBuilder sb = new StringBuilder("{\n");
+        sb.append("  \"operation\": ").append(Json.quote(operation)).append(",\n");
+        sb.append("  \"started\": ").append(Json.quote(
+                new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").format(new Date(startMillis)))).append(",\n");
+        sb.append("  \"durationMs\": ").append(Math.round(sec * 1000)).append(",\n");
+        sb.append("  \"cancelled\": ").append(cancelled).append(",\n");
+        sb.append("  \"errors\": ").append(errors.sum()).append(",\n");
+        sb.append("  \"filesIn\": ").append(filesIn.sum()).append(",\n");
+        sb.append("  \"filesOut\": ").append(filesOut.sum()).append(",\n");
+        sb.append("  \"bytesIn\": ").append(bytesIn.sum()).append(",\n");
+        sb.append("  \"bytesOut\": ").append(bytesOut.sum()).append(",\n");
+        sb.append("  \"pages\": ").append(pages.sum()).append(",\n");
+        sb.append(String.format(Locale.ROOT, "  \"pagesPerSec\": %.2f,\n", pages.sum() / sec));
+        sb.append(String.format(Locale.ROOT, "  \"mbPerSec\": %.2f,\n", bytesIn.sum() / 1048576.0 / sec));
+        sb.append("  \"peakHeapMb\": ").append(peakHeapMb).append(",\n");
+        sb.append("  \"stages\": [");
+        String sep = "\n";
+        for (Map.Entry<String, Stage> e : sortedStages()) {
+            Stage s = e.getValue();
+            long count = s.count.sum();
+            sb.append(sep).append(String.format(Locale.ROOT,
+                    "    {\"name\": %s, \"count\": %d, \"totalMs\": %.1f, \"avgMs\": %.2f, \"maxMs\": %.1f}",
+                    Json.quote(e.getKey()), count, s.totalNanos.sum() / 1e6,
+                    count == 0 ? 0.0 : s.totalNanos.sum() / 1e6 / count, s.maxNanos.get() / 1e6));
+            sep = ",\n";
+        }
+        sb.append("\n  ],\n");
+        sb.append("  \"slowestFiles\": [");
+        sep = "\n";
+        for (Map.Entry<String, Long> e : slowestFiles()) {
+            sb.append(sep).append(String.format(Locale.ROOT, "    {\"file\": %s, \"ms\": %.1f}",
+                    Json.quote(e.getKey()), e.getValue() / 1e6));
+            sep = ",\n";
+        }
+        sb.append("\n  ]\n}\n");
+        return sb.toString();
+    }
+
+    // laporan-<waktu>-<proses>.json di folder dir
+    File writeReport(File dir, boolean cancelled) throws IOException {
+        dir.mkdirs();
+        File report = reportFile(dir, "json");
+        Files.write(report.toPath(), toJson(cancelled).getBytes(StandardCharsets.UTF_8));
+        return report;
+    }
+
+    // nama sama untuk laporan JSON dan manifest XLSX satu job
+    File reportFile(File dir, String extension) {
+        String stamp = new SimpleDateFormat("yyyy-MM-dd_HHmmss_SSS").format(new Date(startMillis));
+        return new File(dir, "laporan-" + stamp + "-" + operation.toLowerCase(Locale.ROOT) + "." + extension);
+    }
+
+    private static final class Stage {
+
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+    }
+
+    final class Span {
+
+        private final String stage;
+        private final File file;
+        private final long start = System.nanoTime();
+        private final StageEvent event = new StageEvent();
+
+        private Span(String stage, File file) {
+            this.stage = stage;
+            this.file = file;
+            event.begin();
+        }
+
+        void end() {
+            long nanos = System.nanoTime() - start;
+            Stage s = stages.computeIfAbsent(stage, k -> new Stage());
+            s.count.increment();
+            s.totalNanos.add(nanos);
+            s.maxNanos.accumulateAndGet(nanos, Math::max);
+            if (file != null) {
+                LongAdder total = fileNanos.get(file.getPath());
+                if (total == null && fileNanos.size() < MAX_TRACKED_FILES) {
+                    total = fileNanos.computeIfAbsent(file.getPath(), k -> new LongAdder());
+                }
+                if (total != null) {
+                    total.add(nanos);
+                }
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.stage = stage;
+                event.file = file != null ? file.getName() : null;
+                event.commit();
+            }
+        }
+    }
+
+    @Name("MergeFile.Stage")
+    @Label("Tahap Proses")
+    @Category("MergeFile")
+    static final class StageEvent extends Event {
+
+        @Label("Proses")
+        String operation;
+
+        @Label("Tahap")
+        String stage;
+
+        @Label("File")
+        String file;
+    }
+
+    @Name("MergeFile.Job")
+    @Label("Job")
+    @Category("MergeFile")
+    static final class JobEvent extends Event {
+
+        @Label("Proses")
+        String operation;
+
+        @Label("File Masuk")
+        long files;
+
+        @Label("Halaman")
+        long pages;
+
+        @Label("Byte Masuk")
+        @DataAmount
+        long bytesIn;
+
+        @Label("Byte Keluar")
+        @DataAmount
+        long bytesOut;
+
+        @Label("Durasi (ms)")
+        long durationMillis;
+    }
+}
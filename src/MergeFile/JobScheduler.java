@@ -0,0 +1,310 @@
+package MergeFile;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Antrian job untuk GUI: job menunggu diurutkan per prioritas (lalu urutan masuk),
+// dan paling banyak maxConcurrent job jalan bersamaan. Tiap job punya log, progress
+// dan tombol batal sendiri. Tidak ada kode Swing di sini; UI diberi tahu lewat Listener.
+final class JobScheduler {
+
+    enum Priority {
+        TINGGI, NORMAL, RENDAH
+    }
+
+    enum Status {
+        MENUNGGU, BERJALAN, SELESAI, GAGAL, DIBATALKAN
+    }
+
+    interface Listener {
+
+        // dipanggil dari thread mana saja
+        void jobChanged(Job job);
+
+        void jobLog(Job job, String message);
+    }
+
+    static final int MAX_LOG_LINES = 5_000; // log per job di memori, lengkapnya di file log
+    static final int MAX_ERROR_SUMMARY = 200; // error yang diulang di rangkuman akhir job
+
+    private final Listener listener;
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final PriorityQueue<Job> waiting = new PriorityQueue<>((a, b) -> a.priority != b.priority
+            ? a.priority.compareTo(b.priority) : Integer.compare(a.id, b.id));
+    private final List<Job> running = new ArrayList<>();
+    // thread job dibuat sesuai kebutuhan, jumlah yang aktif dibatasi oleh maxConcurrent
+    private final AtomicInteger threadCount = new AtomicInteger(1);
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "job-" + threadCount.getAndIncrement());
+        t.setDaemon(true);
+        return t;
+    });
+    private int maxConcurrent;
+
+    JobScheduler(int maxConcurrent, Listener listener) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.listener = listener;
+    }
+
+    Job submit(BatchEngine.Operation operation, List<File> files, boolean folderMode, JobSettings settings,
+            Priority priority) {
+        return enqueue(new Job(nextId.getAndIncrement(), operation, files, folderMode, null, settings, priority));
+    }
+
+    // satu folder: PDF baru dicari saat job jalan (lihat BatchEngine.runFolder), daftar file tidak disimpan
+    Job submitFolder(BatchEngine.Operation operation, File folder, JobSettings settings, Priority priority) {
+        return enqueue(new Job(nextId.getAndIncrement(), operation, List.of(), true, folder, settings, priority));
+    }
+
+    private Job enqueue(Job job) {
+        synchronized (this) {
+            waiting.add(job);
+        }
+        listener.jobChanged(job);
+        dispatch();
+        return job;
+    }
+
+    synchronized int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    void setMaxConcurrent(int value) {
+        synchronized (this) {
+            maxConcurrent = Math.max(1, value);
+        }
+        dispatch();
+    }
+
+    synchronized int getWaitingCount() {
+        return waiting.size();
+    }
+
+    synchronized int getRunningCount() {
+        return running.size();
+    }
+
+    // mulai job menunggu selama masih ada slot
+    private void dispatch() {
+        List<Job> started = new ArrayList<>();
+        synchronized (this) {
+            while (running.size() < maxConcurrent && !waiting.isEmpty()) {
+                Job job = waiting.poll();
+                job.status = Status.BERJALAN;
+                job.startedMillis = System.currentTimeMillis();
+                running.add(job);
+                job.future = executor.submit(() -> execute(job));
+                started.add(job);
+            }
+        }
+        for (Job job : started) {
+            listener.jobChanged(job);
+        }
+    }
+
+    private void execute(Job job) {
+        try {
+            job.log("▶️ Mulai " + job.describe());
+            BatchEngine engine = new BatchEngine(job.settings, job);
+            if (job.folder != null) {
+                engine.runFolder(job.operation, job.folder, job.settings.pdfDiscovery(), found -> {
+                });
+            } else {
+                engine.run(job.operation, job.files, job.folderMode);
+            }
+        } catch (InterruptedException ex) {
+            // tombol Batal → thread job di-interrupt
+        } catch (Exception ex) {
+            job.failed = true;
+            job.log("❌ Error: " + ex.getMessage());
+        } finally {
+            job.finishedMillis = System.currentTimeMillis();
+            job.status = job.cancelled ? Status.DIBATALKAN : job.failed ? Status.GAGAL : Status.SELESAI;
+            job.finish();
+            synchronized (this) {
+                running.remove(job);
+            }
+            listener.jobChanged(job);
+            dispatch();
+        }
+    }
+
+    // job menunggu langsung keluar dari antrian, job berjalan di-interrupt
+    void cancel(Job job) {
+        boolean removed;
+        synchronized (this) {
+            job.cancelled = true;
+            removed = waiting.remove(job);
+            if (removed) {
+                job.status = Status.DIBATALKAN;
+            }
+        }
+        if (removed) {
+            job.log("❌ Dibatalkan sebelum mulai.");
+            listener.jobChanged(job);
+            return;
+        }
+        Future<?> f = job.future;
+        if (f != null && !f.isDone()) {
+            f.cancel(true);
+            job.log("❌ Proses dibatalkan oleh pengguna.");
+        }
+    }
+
+    // prioritas hanya bisa diubah selama job masih menunggu
+    void changePriority(Job job, Priority priority) {
+        synchronized (this) {
+            if (!waiting.remove(job)) {
+                return;
+            }
+            job.priority = priority;
+            waiting.add(job);
+        }
+        listener.jobChanged(job);
+    }
+
+    void shutdown() {
+        List<Job> all;
+        synchronized (this) {
+            all = new ArrayList<>(waiting);
+            all.addAll(running);
+        }
+        for (Job job : all) {
+            cancel(job);
+        }
+        executor.shutdownNow();
+    }
+
+    final class Job implements JobListener {
+
+        final int id;
+        final BatchEngine.Operation operation;
+        final List<File> files;
+        final boolean folderMode;
+        final File folder; // null = daftar file sudah dipilih
+        final JobSettings settings;
+        final long submittedMillis = System.currentTimeMillis();
+
+        volatile Priority priority;
+        volatile Status status = Status.MENUNGGU;
+        volatile int progress = 0;
+        volatile long startedMillis = 0;
+        volatile long finishedMillis = 0;
+        volatile boolean cancelled = false;
+        volatile boolean failed = false;
+        volatile Future<?> future;
+
+        private final LogRing logLines = new LogRing(MAX_LOG_LINES);
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger errorCount = new AtomicInteger();
+
+        Job(int id, BatchEngine.Operation operation, List<File> files, boolean folderMode, File folder,
+                JobSettings settings, Priority priority) {
+            this.id = id;
+            this.operation = operation;
+            this.files = files;
+            this.folderMode = folderMode;
+            this.folder = folder;
+            this.settings = settings;
+            this.priority = priority;
+        }
+
+        String describe() {
+            String name = operationName(operation);
+            if (folder != null) {
+                return name + " folder " + folder.getName();
+            }
+            if (files.size() == 1) {
+                return name + " " + files.get(0).getName();
+            }
+            File parent = files.get(0).getAbsoluteFile().getParentFile();
+            return name + " " + files.size() + " file" + (parent != null ? " (" + parent.getName() + ")" : "");
+        }
+
+        // salinan log terakhir (paling banyak MAX_LOG_LINES baris)
+        List<String> getLog() {
+            return logLines.snapshot();
+        }
+
+        int errorCount() {
+            return errorCount.get();
+        }
+
+        long elapsedMillis() {
+            if (startedMillis == 0) {
+                return 0;
+            }
+            return (finishedMillis > 0 ? finishedMillis : System.currentTimeMillis()) - startedMillis;
+        }
+
+        // rangkuman error dan total waktu di akhir log job
+        private void finish() {
+            long durationSec = elapsedMillis() / 1000;
+            log("⏱ Total waktu: " + (durationSec / 60) + " menit " + (durationSec % 60) + " detik");
+            synchronized (errors) {
+                if (!errors.isEmpty()) {
+                    log("\n======================");
+                    log("📋 Rangkuman Error:");
+                    for (String err : errors) {
+                        log(err);
+                    }
+                    int more = errorCount.get() - errors.size();
+                    if (more > 0) {
+                        log("… dan " + more + " error lainnya (lihat file log)");
+                    }
+                    log("======================\n");
+                }
+            }
+            log(cancelled ? "❌ Proses dibatalkan." : "✅ Proses selesai.");
+        }
+
+        @Override
+        public void log(String message) {
+            logLines.add(message);
+            listener.jobLog(this, message);
+        }
+
+        @Override
+        public void error(String context, Exception ex, File file) {
+            String msg = "❌ Error pada " + context + " → File: " + file.getName() + " → " + ex.getMessage();
+            // jumlah tetap dihitung semua, rangkuman hanya menyimpan yang pertama
+            if (errorCount.incrementAndGet() <= MAX_ERROR_SUMMARY) {
+                errors.add(msg);
+            }
+            log(msg);
+        }
+
+        @Override
+        public void progress(int percent) {
+            if (percent != progress) {
+                progress = percent;
+                listener.jobChanged(this);
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    static String operationName(BatchEngine.Operation operation) {
+        switch (operation) {
+            case MERGE:
+                return "Gabung";
+            case SPLIT:
+                return "Split";
+            case COMPRESS:
+                return "Kompres";
+            default:
+                return "PDF → JPG";
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package MergeFile;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+
+import java.io.File;
+import java.util.function.Consumer;
+
+// Pengaturan proses yang dipakai bersama oleh GUI (menu Pengaturan) dan CLI.
+// Tidak ada kode Swing/AWT di sini.
+final class JobSettings {
+
+    File outputBaseFolder = new File("Output"); // default
+
+    int maxFileSizeKb = 200; // default 200 KB
+    int maxPdfSizeKb = 200; // default 200 KB
+    String gsCompressionLevel = "/ebook"; // default
+    String gsPath = "gs"; // default pakai "gs", kalau user set akan diganti full path
+    int mergeThreads = Math.max(1, Runtime.getRuntime().availableProcessors()); // jumlah grup yang digabung bersamaan
+    int renderThreads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())); // tiap thread buka PDDocument sendiri
+    int jpgDpi = PageRenderer.DEFAULT_DPI; // resolusi PDF → JPG
+    PageRenderer.ColorMode jpgColorMode = PageRenderer.ColorMode.RGB; // GRAY/BINARY untuk scan hitam-putih, AUTO per halaman
+    String compressEngine = "gs"; // "gs" = Ghostscript, "java" = PDFBox tanpa proses eksternal
+    int javaCompressDpi = 150; // DPI maksimal gambar untuk mesin kompres Java
+    int gsProcesses = Math.max(1, Runtime.getRuntime().availableProcessors()); // file yang dikompres bersamaan
+    int gsTimeoutSec = 300; // batas waktu per proses gs, 0 = tanpa batas
+    boolean gsTargetSizeMode = false; // coba /prepress → /screen sampai <= maxPdfSizeKb
+    boolean gsImageDpiOverride = false; // mode target: boleh turunkan resolusi gambar setelah /screen
+    StreamingSplitter.Mode splitMode = StreamingSplitter.Mode.PER_PAGE;
+    String splitRanges = "1-"; // untuk mode rentang, contoh "1-3,5,8-10"
+    int splitChunkPages = 10; // untuk mode per N halaman
+    int splitMaxMb = 10; // untuk mode maksimal ukuran
+    ArchiveOutput.Format archiveFormat = null; // split & PDF → JPG: null = file biasa, ZIP/TAR = satu arsip
+    PdfInput.Mode inputMode = PdfInput.Mode.BUFFERED; // cara membaca file PDF sumber
+    boolean inputScratchFile = false; // data stream hasil parsing ke file sementara
+    int mergeHeapBudgetMb = 0; // 0 = tanpa batas (semua di heap), >0 = sisanya ditulis ke file sementara
+    int cacheMaxMb = 1024; // cache hasil untuk input yang tidak berubah, 0 = mati
+    File cacheDir = null; // null = <folder output>/.cache
+    boolean jobReport = true; // laporan JSON per job di <folder output>/laporan
+    boolean jobManifest = false; // manifest XLSX per job (semua input dan hasilnya) di folder yang sama
+    int discoverDepth = 0; // subfolder yang ikut dicari saat pilih folder, 0 = hanya folder itu, -1 = tanpa batas
+    String discoverInclude = ""; // pola glob dipisah koma, kosong = semua PDF
+    String discoverExclude = ""; // pola glob file/folder yang dilewati
+
+    JobSettings() {
+    }
+
+    // salinan untuk satu proses, supaya perubahan menu saat proses berjalan tidak ikut terpakai
+    JobSettings copy() {
+        JobSettings c = new JobSettings();
+        c.outputBaseFolder = outputBaseFolder;
+        c.maxFileSizeKb = maxFileSizeKb;
+        c.maxPdfSizeKb = maxPdfSizeKb;
+        c.gsCompressionLevel = gsCompressionLevel;
+        c.gsPath = gsPath;
+        c.mergeThreads = mergeThreads;
+        c.renderThreads = renderThreads;
+        c.jpgDpi = jpgDpi;
+        c.jpgColorMode = jpgColorMode;
+        c.compressEngine = compressEngine;
+        c.javaCompressDpi = javaCompressDpi;
+        c.gsProcesses = gsProcesses;
+        c.gsTimeoutSec = gsTimeoutSec;
+        c.gsTargetSizeMode = gsTargetSizeMode;
+        c.gsImageDpiOverride = gsImageDpiOverride;
+        c.splitMode = splitMode;
+        c.splitRanges = splitRanges;
+        c.splitChunkPages = splitChunkPages;
+        c.splitMaxMb = splitMaxMb;
+        c.archiveFormat = archiveFormat;
+        c.inputMode = inputMode;
+        c.inputScratchFile = inputScratchFile;
+        c.mergeHeapBudgetMb = mergeHeapBudgetMb;
+        c.cacheMaxMb = cacheMaxMb;
+        c.cacheDir = cacheDir;
+        c.jobReport = jobReport;
+        c.jobManifest = jobManifest;
+        c.discoverDepth = discoverDepth;
+        c.discoverInclude = discoverInclude;
+        c.discoverExclude = discoverExclude;
+        return c;
+    }
+
+    File cacheDir() {
+        return cacheDir != null ? cacheDir : new File(outputBaseFolder, ".cache");
+    }
+
+    PdfDiscovery pdfDiscovery() {
+        return new PdfDiscovery(discoverDepth, discoverInclude, discoverExclude);
+    }
+
+    PdfInput pdfInput() {
+        return new PdfInput(inputMode, inputScratchFile);
+    }
+
+    PageRenderer pageRenderer() {
+        return new PageRenderer(jpgColorMode, jpgDpi);
+    }
+
+    StreamingSplitter newSplitter(JobMetrics metrics, JobListener listener) {
+        return new StreamingSplitter(splitMode, splitRanges, splitChunkPages, splitMaxMb, pdfInput(), metrics,
+                listener);
+    }
+
+    // null = default PDFBox (semua sumber di heap)
+    MemoryUsageSetting mergeMemorySetting(int parallelMerges) {
+        if (mergeHeapBudgetMb <= 0) {
+            return null;
+        }
+        long budgetBytes = mergeHeapBudgetMb * 1024L * 1024L / Math.max(1, parallelMerges);
+        return MemoryUsageSetting.setupMixed(budgetBytes);
+    }
+
+    void detectGhostscript(Consumer<String> log) {
+        if (!"gs".equals(gsPath)) {
+            log.accept("📌 Path Ghostscript sudah diset manual: " + gsPath);
+            return;
+        }
+
+        if (isGsAvailable("gs")) {
+            log.accept("✅ Ghostscript ditemukan di PATH (gs).");
+            gsPath = "gs";
+            return;
+        }
+
+        // Scan otomatis folder C:\Program Files\gs\
+        File baseDir = new File("C:\\Program Files\\gs");
+        if (baseDir.exists() && baseDir.isDirectory()) {
+            File[] versions = baseDir.listFiles(File::isDirectory);
+            if (versions != null && versions.length > 0) {
+                for (File ver : versions) {
+                    File candidate = new File(ver, "bin\\gswin64c.exe");
+                    if (candidate.exists()) {
+                        gsPath = candidate.getAbsolutePath();
+                        log.accept("✅ Ghostscript otomatis terdeteksi di: " + gsPath);
+                        return;
+                    }
+                }
+            }
+        }
+
+        log.accept("⚠️ Ghostscript tidak ditemukan otomatis. Silakan set manual lewat menu Pengaturan,"
+                + " atau pilih mesin kompres Java.");
+    }
+
+    private static boolean isGsAvailable(String cmd) {
+        try {
+            ProcessBuilder pb = new ProcessBuilder(cmd, "--version");
+            pb.redirectErrorStream(true);
+            Process p = pb.start();
+            p.waitFor();
+            return p.exitValue() == 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
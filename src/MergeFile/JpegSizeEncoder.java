@@ -0,0 +1,150 @@
+package MergeFile;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+// Encoder JPG dengan target ukuran maksimal (Kb).
+// Kualitas dicari di grid yang sama dengan cara lama (1.0, 0.95, ... 0.1), tapi mulai
+// dari kualitas halaman sebelumnya lalu dipersempit dengan bisection, jadi cukup beberapa
+// kali encode per halaman. Writer dan buffer dipakai ulang → satu instance untuk satu thread.
+final class JpegSizeEncoder implements AutoCloseable {
+
+    private static final int LAST_STEP = 18; // 1.0 - 18 * 0.05 = 0.1
+
+    private final int maxFileSizeKb;
+    private final ImageWriter writer;
+    private final ImageWriteParam param;
+
+    // dua buffer ditukar: satu menyimpan hasil terbaik, satu untuk percobaan
+    private ByteArrayOutputStream best = new ByteArrayOutputStream(512 * 1024);
+    private ByteArrayOutputStream trial = new ByteArrayOutputStream(512 * 1024);
+
+    private int lastStep = 0; // tebakan awal untuk halaman berikutnya
+    private long encodeCount = 0;
+    private long imageCount = 0;
+
+    JpegSizeEncoder(int maxFileSizeKb) {
+        this.maxFileSizeKb = maxFileSizeKb;
+        this.writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        this.param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+    }
+
+    void write(BufferedImage image, File outFile) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(outFile)) {
+            write(image, fos);
+        }
+    }
+
+    // hasil JPG ditulis ke out, kualitas tertinggi yang masih <= maxFileSizeKb
+    void write(BufferedImage image, OutputStream out) throws IOException {
+        encodeBest(image);
+        best.writeTo(out);
+    }
+
+    // sama seperti write, tapi hasilnya dikembalikan sebagai byte[] (untuk pipeline)
+    byte[] encode(BufferedImage image) throws IOException {
+        encodeBest(image);
+        return best.toByteArray();
+    }
+
+    private void encodeBest(BufferedImage image) throws IOException {
+        imageCount++;
+
+        // lo = step terakhir yang diketahui terlalu besar, hi = step pertama yang muat
+        int lo = -1;
+        int hi = -1;
+        int start = lastStep;
+
+        if (tryStep(image, start)) {
+            // muat → coba naikkan kualitas dengan langkah yang makin besar
+            hi = start;
+            int jump = 1;
+            while (hi > 0) {
+                int k = Math.max(0, hi - jump);
+                if (tryStep(image, k)) {
+                    hi = k;
+                    jump *= 2;
+                } else {
+                    lo = k;
+                    break;
+                }
+            }
+        } else {
+            // terlalu besar → turunkan kualitas dengan langkah yang makin besar
+            lo = start;
+            int jump = 1;
+            while (lo < LAST_STEP) {
+                int k = Math.min(LAST_STEP, lo + jump);
+                if (tryStep(image, k)) {
+                    hi = k;
+                    break;
+                }
+                lo = k;
+                jump *= 2;
+            }
+            if (hi < 0) {
+                // kualitas terendah pun masih terlalu besar, tetap dipakai (sama seperti dulu)
+                lastStep = LAST_STEP;
+                return;
+            }
+        }
+
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (tryStep(image, mid)) {
+                hi = mid;
+            } else {
+                lo = mid;
+            }
+        }
+        lastStep = hi;
+    }
+
+    // encode di step tertentu; kalau muat, hasilnya jadi kandidat terbaik
+    private boolean tryStep(BufferedImage image, int step) throws IOException {
+        trial.reset();
+        param.setCompressionQuality(1.0f - step * 0.05f);
+        try (ImageOutputStream ios = new MemoryCacheImageOutputStream(trial)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        }
+        writer.setOutput(null);
+        encodeCount++;
+
+        boolean fits = trial.size() / 1024 <= maxFileSizeKb;
+        if (fits || step == LAST_STEP) {
+            swap();
+        }
+        return fits;
+    }
+
+    private void swap() {
+        ByteArrayOutputStream tmp = best;
+        best = trial;
+        trial = tmp;
+    }
+
+    long getEncodeCount() {
+        return encodeCount;
+    }
+
+    long getImageCount() {
+        return imageCount;
+    }
+
+    @Override
+    public void close() {
+        writer.dispose();
+    }
+}
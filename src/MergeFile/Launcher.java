@@ -0,0 +1,18 @@
+package MergeFile;
+
+// Main-Class jar: tanpa argumen buka jendela (MergeFile), dengan argumen jalan tanpa jendela (MergeFileCli).
+// Sengaja bukan turunan JFrame: memuat MergeFile sudah memuat AWT, padahal CLI harus sempat
+// mengeset java.awt.headless sebelum itu.
+public final class Launcher {
+
+    private Launcher() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            MergeFileCli.main(args);
+        } else {
+            MergeFile.main(args);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package MergeFile;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// Log di memori dengan batas baris: baris paling lama dibuang kalau penuh.
+// Log lengkap ada di file (RotatingLogWriter), ini hanya untuk ditampilkan.
+final class LogRing {
+
+    private final int capacity;
+    private final ArrayDeque<String> lines;
+    private long dropped = 0;
+
+    LogRing(int capacity) {
+        this.capacity = capacity;
+        this.lines = new ArrayDeque<>(Math.min(capacity, 1024));
+    }
+
+    synchronized void add(String line) {
+        if (lines.size() == capacity) {
+            lines.removeFirst();
+            dropped++;
+        }
+        lines.addLast(line);
+    }
+
+    // salinan isi saat ini; baris yang sudah dibuang diganti satu baris keterangan
+    synchronized List<String> snapshot() {
+        List<String> copy = new ArrayList<>(lines.size() + 1);
+        if (dropped > 0) {
+            copy.add("… " + dropped + " baris lebih lama tidak ditampilkan (lihat file log)");
+        }
+        copy.addAll(lines);
+        return copy;
+    }
+}
@@ -0,0 +1,68 @@
+package MergeFile;
+
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+import javax.swing.text.BadLocationException;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Area log di GUI. Pesan dari thread mana saja hanya masuk antrian; timer di EDT menambahkannya
+// sekaligus beberapa kali per detik (satu append + satu geser caret per batch, bukan per baris),
+// dan teks di layar dibatasi maxLines baris terakhir.
+final class LogView {
+
+    private static final int FLUSH_MILLIS = 150;
+
+    private final JTextArea area;
+    private final int maxLines;
+    // {sumber, pesan}: pesan dari sumber yang sedang tidak ditampilkan dibuang saat flush
+    private final ConcurrentLinkedQueue<Object[]> pending = new ConcurrentLinkedQueue<>();
+    private volatile Object shownSource;
+
+    LogView(JTextArea area, int maxLines) {
+        this.area = area;
+        this.maxLines = maxLines;
+        new Timer(FLUSH_MILLIS, e -> flush()).start();
+    }
+
+    // dari thread mana saja
+    void post(Object source, String message) {
+        if (source == shownSource) {
+            pending.add(new Object[]{source, message});
+        }
+    }
+
+    // EDT: ganti isi dengan log sumber lain (null = log umum)
+    void show(Object source, List<String> lines) {
+        shownSource = source;
+        pending.clear();
+        int from = Math.max(0, lines.size() - maxLines);
+        area.setText(lines.isEmpty() ? "" : String.join("\n", lines.subList(from, lines.size())) + "\n");
+        area.setCaretPosition(area.getDocument().getLength());
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        Object[] item;
+        while ((item = pending.poll()) != null) {
+            if (item[0] == shownSource) {
+                sb.append(item[1]).append('\n');
+            }
+        }
+        if (sb.length() == 0) {
+            return;
+        }
+        area.append(sb.toString());
+        int excess = area.getLineCount() - 1 - maxLines; // baris terakhir selalu kosong setelah "\n"
+        if (excess > 0) {
+            try {
+                area.getDocument().remove(0, area.getLineStartOffset(excess));
+            } catch (BadLocationException ignored) {
+            }
+        }
+        area.setCaretPosition(area.getDocument().getLength());
+    }
+}
@@ -1,121 +1,73 @@
 package MergeFile;
 
-import org.apache.pdfbox.multipdf.PDFMergerUtility;
-import org.apache.pdfbox.pdmodel.PDDocument;
-
-import org.apache.pdfbox.rendering.PDFRenderer;
-import java.awt.image.BufferedImage;
-import javax.imageio.ImageIO;
-
-import javax.imageio.ImageWriteParam;
-import javax.imageio.ImageWriter;
-import javax.imageio.stream.ImageOutputStream;
-
 import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.List;
-import javax.imageio.IIOImage;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.swing.Timer;
 
 public class MergeFile extends JFrame {
 
-    private long startTimeMillis;
     private JTextField fileField;
     private JTextField outputFolderField;
     private List<File> selectedFiles = new ArrayList<>();
-    private boolean folderMode = false;
+    // mode folder: hanya folder dan jumlah PDF-nya yang disimpan, file dicari lagi oleh job
+    private File selectedFolder = null;
+    private int selectedFolderCount = 0;
     private JProgressBar progressBar;
     private JTextArea logArea;
     private JButton cancelButton;
-    private File outputBaseFolder = new File("Output"); // default
-
-    private SwingWorker<Void, String> worker; // untuk proses gabung/split
-
-    private int maxFileSizeKb = 200; // default 200 KB
-    private int maxPdfSizeKb = 200; // default 200 KB
-    private String gsCompressionLevel = "/ebook"; // default
-    private String gsPath = "gs"; // default pakai "gs", kalau user set akan diganti full path
-
-    private List<String> errorLogs = new ArrayList<>();
 
-    private void logError(String context, Exception ex, File file) {
-        String msg = "❌ Error pada " + context + " → File: " + file.getName() + " → " + ex.getMessage();
-        errorLogs.add(msg);
-        log(msg);
-    }
+    private JComboBox<JobScheduler.Priority> priorityBox;
+    private JTable jobTable;
+    private JobTableModel jobTableModel;
 
-    private void showFinalErrorReport() {
-        if (!errorLogs.isEmpty()) {
-            log("\n======================");
-            log("📋 Rangkuman Error:");
-            for (String err : errorLogs) {
-                log(err);
-            }
-            log("======================\n");
-            errorLogs.clear(); // reset setelah ditampilkan
-        }
-    }
+    // pengaturan proses, dipakai bersama dengan CLI (MergeFileCli)
+    private final JobSettings settings = new JobSettings();
 
-    private void detectGhostscript() {
-        if (!"gs".equals(gsPath)) {
-            log("📌 Path Ghostscript sudah diset manual: " + gsPath);
-            return;
+    // antrian job: beberapa job jalan bersamaan, tiap job punya log sendiri
+    private final JobScheduler scheduler = new JobScheduler(2, new JobScheduler.Listener() {
+        @Override
+        public void jobChanged(JobScheduler.Job job) {
+            SwingUtilities.invokeLater(() -> onJobChanged(job));
         }
 
-        if (isGsAvailable("gs")) {
-            log("✅ Ghostscript ditemukan di PATH (gs).");
-            gsPath = "gs";
-            return;
-        }
-
-        // Scan otomatis folder C:\Program Files\gs\
-        File baseDir = new File("C:\\Program Files\\gs");
-        if (baseDir.exists() && baseDir.isDirectory()) {
-            File[] versions = baseDir.listFiles(File::isDirectory);
-            if (versions != null && versions.length > 0) {
-                for (File ver : versions) {
-                    File candidate = new File(ver, "bin\\gswin64c.exe");
-                    if (candidate.exists()) {
-                        gsPath = candidate.getAbsolutePath();
-                        log("✅ Ghostscript otomatis terdeteksi di: " + gsPath);
-                        return;
-                    }
-                }
+        @Override
+        public void jobLog(JobScheduler.Job job, String message) {
+            fileLog.write("#" + job.id + " " + message);
+            if (logView != null) {
+                logView.post(job, message);
             }
         }
+    });
+    private JobScheduler.Job shownJob; // job yang log-nya sedang tampil, null = log umum
+    private final LogRing generalLog = new LogRing(JobScheduler.MAX_LOG_LINES); // pesan di luar job (pengaturan dll)
+    // log lengkap semua job, 10 MB per file, 5 file lama disimpan
+    private final RotatingLogWriter fileLog = new RotatingLogWriter(new File("logs", "mergefile.log"),
+            10L * 1024 * 1024, 5);
+    private LogView logView; // null sampai UI siap
+    private FolderWatcher folderWatcher; // null = tidak ada folder yang dipantau
+    private SwingWorker<Integer, Integer> discoveryWorker; // pencarian PDF di folder yang sedang berjalan
 
-        log("⚠️ Ghostscript tidak ditemukan otomatis. Silakan set manual lewat menu Pengaturan.");
-    }
-
-    private boolean isGsAvailable(String cmd) {
-        try {
-            ProcessBuilder pb = new ProcessBuilder(cmd, "--version");
-            pb.redirectErrorStream(true);
-            Process p = pb.start();
-            p.waitFor();
-            return p.exitValue() == 0;
-        } catch (Exception e) {
-            return false;
-        }
+    private void detectGhostscript() {
+        settings.detectGhostscript(this::log);
     }
 
     public MergeFile() {
         setTitle("MergeSplitX V.1");
-        setSize(800, 450);
+        setSize(800, 650);
         setResizable(false);
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         setLayout(new BorderLayout(10, 5)); // jarak antar panel lebih rapat
 
         // Pastikan folder default Output selalu ada
-        if (!outputBaseFolder.exists()) {
-            outputBaseFolder.mkdirs();
+        if (!settings.outputBaseFolder.exists()) {
+            settings.outputBaseFolder.mkdirs();
         }
 
         // === Menu bar ===
@@ -125,30 +77,468 @@ public class MergeFile extends JFrame {
         JMenu menu = new JMenu("Pengaturan");
         JMenuItem resetOutput = new JMenuItem("Reset Folder Output");
         resetOutput.addActionListener(e -> {
-            outputBaseFolder = new File("Output");
-            if (!outputBaseFolder.exists()) {
-                outputBaseFolder.mkdirs();
+            settings.outputBaseFolder = new File("Output");
+            if (!settings.outputBaseFolder.exists()) {
+                settings.outputBaseFolder.mkdirs();
             }
-            outputFolderField.setText(outputBaseFolder.getAbsolutePath());
-            log("🔄 Folder output dikembalikan ke default: " + outputBaseFolder.getAbsolutePath());
+            outputFolderField.setText(settings.outputBaseFolder.getAbsolutePath());
+            log("🔄 Folder output dikembalikan ke default: " + settings.outputBaseFolder.getAbsolutePath());
         });
         JMenuItem setMaxSize = new JMenuItem("Set Maksimal JPG (Kb)");
         setMaxSize.addActionListener(e -> {
             String input = JOptionPane.showInputDialog(
                     this,
                     "Masukkan ukuran maksimal file JPG (Kb):",
-                    maxFileSizeKb
+                    settings.maxFileSizeKb
+            );
+            if (input != null && !input.trim().isEmpty()) {
+                try {
+                    settings.maxFileSizeKb = Integer.parseInt(input.trim());
+                    log("⚙️ Batas ukuran JPG diset: " + settings.maxFileSizeKb + " Kb");
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(this, "Harap masukkan angka yang valid.");
+                }
+            }
+        });
+
+        JMenuItem setMergeThreads = new JMenuItem("Set Jumlah Thread Gabung");
+        setMergeThreads.addActionListener(e -> {
+            String input = JOptionPane.showInputDialog(
+                    this,
+                    "Jumlah grup yang digabung bersamaan (mode folder):",
+                    settings.mergeThreads
+            );
+            if (input != null && !input.trim().isEmpty()) {
+                try {
+                    int value = Integer.parseInt(input.trim());
+                    if (value < 1) {
+                        throw new NumberFormatException();
+                    }
+                    settings.mergeThreads = value;
+                    log("⚙️ Jumlah thread gabung diset: " + settings.mergeThreads);
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(this, "Harap masukkan angka yang valid.");
+                }
+            }
+        });
+
+        JMenuItem setRenderThreads = new JMenuItem("Set Jumlah Thread Render JPG");
+        setRenderThreads.addActionListener(e -> {
+            String input = JOptionPane.showInputDialog(
+                    this,
+                    "Jumlah thread render PDF → JPG:",
+                    settings.renderThreads
+            );
+            if (input != null && !input.trim().isEmpty()) {
+                try {
+                    int value = Integer.parseInt(input.trim());
+                    if (value < 1) {
+                        throw new NumberFormatException();
+                    }
+                    settings.renderThreads = value;
+                    log("⚙️ Jumlah thread render diset: " + settings.renderThreads);
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(this, "Harap masukkan angka yang valid.");
+                }
+            }
+        });
+
+        JMenuItem setConcurrentJobs = new JMenuItem("Set Jumlah Job Bersamaan");
+        setConcurrentJobs.addActionListener(e -> {
+            String input = JOptionPane.showInputDialog(
+                    this,
+                    "Jumlah job di antrian yang boleh jalan bersamaan:",
+                    scheduler.getMaxConcurrent()
+            );
+            if (input != null && !input.trim().isEmpty()) {
+                try {
+                    int value = Integer.parseInt(input.trim());
+                    if (value < 1) {
+                        throw new NumberFormatException();
+                    }
+                    scheduler.setMaxConcurrent(value);
+                    log("⚙️ Jumlah job bersamaan diset: " + value);
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(this, "Harap masukkan angka yang valid.");
+                }
+            }
+        });
+
+        JMenuItem setMaxPdfSize = new JMenuItem("Set Maksimal PDF (Kb)");
+        setMaxPdfSize.addActionListener(e -> {
+            String input = JOptionPane.showInputDialog(
+                    this,
+                    "Masukkan ukuran maksimal file PDF hasil kompres (Kb):",
+                    settings.maxPdfSizeKb
+            );
+            if (input != null && !input.trim().isEmpty()) {
+                try {
+                    settings.maxPdfSizeKb = Integer.parseInt(input.trim());
+                    log("⚙️ Batas ukuran PDF diset: " + settings.maxPdfSizeKb + " Kb");
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(this, "Harap masukkan angka yang valid.");
+                }
+            }
+        });
+
+        JCheckBoxMenuItem targetSizeMode = new JCheckBoxMenuItem("Kompres Sampai Target Ukuran", settings.gsTargetSizeMode);
+        targetSizeMode.addActionListener(e -> {
+            settings.gsTargetSizeMode = targetSizeMode.isSelected();
+            log(settings.gsTargetSizeMode
+                    ? "⚙️ Mode target ukuran aktif (maks " + settings.maxPdfSizeKb + " Kb)"
+                    : "⚙️ Mode target ukuran dimatikan, pakai level " + settings.gsCompressionLevel);
+        });
+
+        JCheckBoxMenuItem imageDpiOverride = new JCheckBoxMenuItem("Target Ukuran: Turunkan Resolusi Gambar", settings.gsImageDpiOverride);
+        imageDpiOverride.addActionListener(e -> {
+            settings.gsImageDpiOverride = imageDpiOverride.isSelected();
+            log("⚙️ Turunkan resolusi gambar di mode target: " + (settings.gsImageDpiOverride ? "ya" : "tidak"));
+        });
+
+        JMenuItem setCompressEngine = new JMenuItem("Set Mesin Kompres");
+        setCompressEngine.addActionListener(e -> {
+            String[] options = {"Ghostscript (default)",
+                "Java / PDFBox (tanpa Ghostscript)"};
+
+            String pilih = (String) JOptionPane.showInputDialog(
+                    this,
+                    "Pilih mesin kompres PDF:",
+                    "Pengaturan Kompresi",
+                    JOptionPane.QUESTION_MESSAGE,
+                    null,
+                    options,
+                    "java".equals(settings.compressEngine) ? options[1] : options[0]
+            );
+
+            if (pilih != null) {
+                settings.compressEngine = pilih.startsWith("Java") ? "java" : "gs";
+                log("⚙️ Mesin kompres: " + ("java".equals(settings.compressEngine)
+                        ? "Java / PDFBox (gambar maks " + settings.javaCompressDpi + " DPI)" : "Ghostscript"));
+            }
+        });
+
+        JMenuItem setJavaCompressDpi = new JMenuItem("Set DPI Gambar Kompres Java");
+        setJavaCompressDpi.addActionListener(e -> {
+            String input = JOptionPane.showInputDialog(
+                    this,
+                    "Resolusi maksimal gambar (DPI) untuk mesin kompres Java:",
+                    settings.javaCompressDpi
+            );
+            if (input != null && !input.trim().isEmpty()) {
+                try {
+                    int value = Integer.parseInt(input.trim());
+                    if (value < 1) {
+                        throw new NumberFormatException();
+                    }
+                    settings.javaCompressDpi = value;
+                    log("⚙️ DPI gambar kompres Java diset: " + settings.javaCompressDpi);
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(this, "Harap masukkan angka yang valid.");
+                }
+            }
+        });
+
+        JMenuItem setGsProcesses = new JMenuItem("Set Jumlah Proses Kompres");
+        setGsProcesses.addActionListener(e -> {
+            String input = JOptionPane.showInputDialog(
+                    this,
+                    "Jumlah file yang dikompres bersamaan:",
+                    settings.gsProcesses
+            );
+            if (input != null && !input.trim().isEmpty()) {
+                try {
+                    int value = Integer.parseInt(input.trim());
+                    if (value < 1) {
+                        throw new NumberFormatException();
+                    }
+                    settings.gsProcesses = value;
+                    log("⚙️ Jumlah proses kompres diset: " + settings.gsProcesses);
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(this, "Harap masukkan angka yang valid.");
+                }
+            }
+        });
+
+        JMenuItem setGsTimeout = new JMenuItem("Set Timeout Ghostscript (detik)");
+        setGsTimeout.addActionListener(e -> {
+            String input = JOptionPane.showInputDialog(
+                    this,
+                    "Batas waktu per file (detik), 0 = tanpa batas:",
+                    settings.gsTimeoutSec
             );
             if (input != null && !input.trim().isEmpty()) {
                 try {
-                    maxFileSizeKb = Integer.parseInt(input.trim());
-                    log("⚙️ Batas ukuran JPG diset: " + maxFileSizeKb + " Kb");
+                    int value = Integer.parseInt(input.trim());
+                    if (value < 0) {
+                        throw new NumberFormatException();
+                    }
+                    settings.gsTimeoutSec = value;
+                    log("⚙️ Timeout Ghostscript diset: " + settings.gsTimeoutSec + " detik");
                 } catch (NumberFormatException ex) {
                     JOptionPane.showMessageDialog(this, "Harap masukkan angka yang valid.");
                 }
             }
         });
 
+        JMenuItem setMergeMemory = new JMenuItem("Set Batas Memori Gabung (MB)");
+        setMergeMemory.addActionListener(e -> {
+            String input = JOptionPane.showInputDialog(
+                    this,
+                    "Batas heap untuk gabung PDF (MB), 0 = tanpa batas:",
+                    settings.mergeHeapBudgetMb
+            );
+            if (input != null && !input.trim().isEmpty()) {
+                try {
+                    int value = Integer.parseInt(input.trim());
+                    if (value < 0) {
+                        throw new NumberFormatException();
+                    }
+                    settings.mergeHeapBudgetMb = value;
+                    if (settings.mergeHeapBudgetMb == 0) {
+                        log("⚙️ Mode hemat memori gabung dimatikan (semua di heap)");
+                    } else {
+                        log("⚙️ Mode hemat memori gabung: " + settings.mergeHeapBudgetMb + " MB heap, sisanya ke file sementara");
+                    }
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(this, "Harap masukkan angka yang valid.");
+                }
+            }
+        });
+
+        JMenuItem setCacheSize = new JMenuItem("Set Batas Cache Hasil (MB)");
+        setCacheSize.addActionListener(e -> {
+            String input = JOptionPane.showInputDialog(
+                    this,
+                    "Batas ukuran cache hasil (MB), 0 = cache mati:",
+                    settings.cacheMaxMb
+            );
+            if (input != null && !input.trim().isEmpty()) {
+                try {
+                    int value = Integer.parseInt(input.trim());
+                    if (value < 0) {
+                        throw new NumberFormatException();
+                    }
+                    settings.cacheMaxMb = value;
+                    if (settings.cacheMaxMb == 0) {
+                        log("⚙️ Cache hasil dimatikan");
+                    } else {
+                        log("⚙️ Cache hasil: maksimal " + settings.cacheMaxMb + " MB di "
+                                + settings.cacheDir().getAbsolutePath());
+                    }
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(this, "Harap masukkan angka yang valid.");
+                }
+            }
+        });
+
+        JMenuItem setJpgRender = new JMenuItem("Set Mode Warna & DPI JPG");
+        setJpgRender.addActionListener(e -> {
+            String[] options = {"Warna / RGB (default)", "Abu-abu", "Hitam-putih (scan surat)",
+                "Otomatis per halaman (abu-abu kalau tidak berwarna)"};
+            String pilih = (String) JOptionPane.showInputDialog(
+                    this,
+                    "Mode warna render PDF → JPG:",
+                    "Mode Warna JPG",
+                    JOptionPane.QUESTION_MESSAGE,
+                    null,
+                    options,
+                    options[settings.jpgColorMode.ordinal()]
+            );
+            if (pilih == null) {
+                return;
+            }
+            // urutan options sama dengan PageRenderer.ColorMode
+            settings.jpgColorMode = PageRenderer.ColorMode.values()[Arrays.asList(options).indexOf(pilih)];
+            String input = JOptionPane.showInputDialog(
+                    this,
+                    "DPI render JPG (300 = default, 150-200 cukup untuk surat):",
+                    settings.jpgDpi
+            );
+            if (input != null && !input.trim().isEmpty()) {
+                try {
+                    int value = Integer.parseInt(input.trim());
+                    if (value < 1) {
+                        throw new NumberFormatException();
+                    }
+                    settings.jpgDpi = value;
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(this, "Harap masukkan angka yang valid.");
+                }
+            }
+            log("⚙️ Render JPG: mode " + settings.jpgColorMode.option + ", " + settings.jpgDpi + " DPI");
+        });
+
+        JMenuItem setArchive = new JMenuItem("Set Output Split & JPG (Folder / ZIP / TAR)");
+        setArchive.addActionListener(e -> {
+            String[] options = {"File biasa di folder (default)", "Satu arsip ZIP", "Satu arsip TAR"};
+            String pilih = (String) JOptionPane.showInputDialog(
+                    this,
+                    "Hasil split dan PDF → JPG ditulis ke:",
+                    "Output Arsip",
+                    JOptionPane.QUESTION_MESSAGE,
+                    null,
+                    options,
+                    options[settings.archiveFormat == null ? 0 : settings.archiveFormat.ordinal() + 1]
+            );
+            if (pilih != null) {
+                settings.archiveFormat = pilih.contains("ZIP") ? ArchiveOutput.Format.ZIP
+                        : pilih.contains("TAR") ? ArchiveOutput.Format.TAR : null;
+                log("⚙️ Output split & JPG: " + (settings.archiveFormat == null ? "file biasa di folder"
+                        : "satu arsip ." + settings.archiveFormat.extension));
+            }
+        });
+
+        JMenuItem setSplitMode = new JMenuItem("Set Mode Split");
+        setSplitMode.addActionListener(e -> {
+            String[] options = {"Per halaman (default)",
+                "Rentang halaman (contoh 1-3,5,8-10)",
+                "Per N halaman",
+                "Maksimal ukuran per bagian (MB)"};
+
+            String pilih = (String) JOptionPane.showInputDialog(
+                    this,
+                    "Pilih mode split:",
+                    "Pengaturan Split",
+                    JOptionPane.QUESTION_MESSAGE,
+                    null,
+                    options,
+                    options[settings.splitMode.ordinal()]
+            );
+            if (pilih == null) {
+                return;
+            }
+
+            try {
+                if (pilih.startsWith("Rentang")) {
+                    String input = JOptionPane.showInputDialog(this, "Rentang halaman:", settings.splitRanges);
+                    if (input == null || input.trim().isEmpty()) {
+                        return;
+                    }
+                    StreamingSplitter.parseRanges(input, Integer.MAX_VALUE); // validasi saja
+                    settings.splitRanges = input.trim();
+                    settings.splitMode = StreamingSplitter.Mode.RANGES;
+                } else if (pilih.startsWith("Per N")) {
+                    String input = JOptionPane.showInputDialog(this, "Jumlah halaman per bagian:", settings.splitChunkPages);
+                    if (input == null || input.trim().isEmpty()) {
+                        return;
+                    }
+                    int value = Integer.parseInt(input.trim());
+                    if (value < 1) {
+                        throw new NumberFormatException();
+                    }
+                    settings.splitChunkPages = value;
+                    settings.splitMode = StreamingSplitter.Mode.CHUNKS;
+                } else if (pilih.startsWith("Maksimal")) {
+                    String input = JOptionPane.showInputDialog(this, "Ukuran maksimal per bagian (MB):", settings.splitMaxMb);
+                    if (input == null || input.trim().isEmpty()) {
+                        return;
+                    }
+                    int value = Integer.parseInt(input.trim());
+                    if (value < 1) {
+                        throw new NumberFormatException();
+                    }
+                    settings.splitMaxMb = value;
+                    settings.splitMode = StreamingSplitter.Mode.MAX_SIZE;
+                } else {
+                    settings.splitMode = StreamingSplitter.Mode.PER_PAGE;
+                }
+                log("⚙️ Mode split: " + settings.newSplitter(null, null).describe());
+            } catch (IllegalArgumentException ex) {
+                // NumberFormatException juga turunan IllegalArgumentException
+                JOptionPane.showMessageDialog(this, ex instanceof NumberFormatException
+                        ? "Harap masukkan angka yang valid." : ex.getMessage());
+            }
+        });
+
+        JMenuItem setInputMode = new JMenuItem("Set Mode Baca PDF");
+        setInputMode.addActionListener(e -> {
+            String[] options = {"Buffered (default)",
+                "Memory-mapped (file sangat besar)"};
+
+            String pilih = (String) JOptionPane.showInputDialog(
+                    this,
+                    "Pilih cara membaca file PDF sumber:",
+                    "Pengaturan Input",
+                    JOptionPane.QUESTION_MESSAGE,
+                    null,
+                    options,
+                    options[settings.inputMode.ordinal()]
+            );
+            if (pilih != null) {
+                settings.inputMode = pilih.startsWith("Memory") ? PdfInput.Mode.MAPPED : PdfInput.Mode.BUFFERED;
+                log("⚙️ Mode baca PDF: " + settings.pdfInput().describe());
+            }
+        });
+
+        JCheckBoxMenuItem inputScratch = new JCheckBoxMenuItem("Simpan Objek PDF di File Sementara", settings.inputScratchFile);
+        inputScratch.addActionListener(e -> {
+            settings.inputScratchFile = inputScratch.isSelected();
+            log("⚙️ Mode baca PDF: " + settings.pdfInput().describe());
+        });
+
+        JCheckBoxMenuItem jobReport = new JCheckBoxMenuItem("Simpan Laporan Kinerja Job (JSON)", settings.jobReport);
+        jobReport.addActionListener(e -> {
+            settings.jobReport = jobReport.isSelected();
+            log(settings.jobReport
+                    ? "⚙️ Laporan job disimpan di " + new File(settings.outputBaseFolder, "laporan").getPath()
+                    : "⚙️ Laporan job tidak disimpan");
+        });
+
+        JCheckBoxMenuItem jobManifest = new JCheckBoxMenuItem("Simpan Manifest XLSX per Job", settings.jobManifest);
+        jobManifest.addActionListener(e -> {
+            settings.jobManifest = jobManifest.isSelected();
+            log(settings.jobManifest
+                    ? "⚙️ Manifest XLSX disimpan di " + new File(settings.outputBaseFolder, "laporan").getPath()
+                    : "⚙️ Manifest XLSX tidak disimpan");
+        });
+
+        JCheckBoxMenuItem watchFolder = new JCheckBoxMenuItem("Pantau Folder (Gabung Ulang Otomatis)");
+        watchFolder.addActionListener(e -> {
+            if (!watchFolder.isSelected()) {
+                stopWatch();
+                return;
+            }
+            JFileChooser chooser = new JFileChooser();
+            chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+            if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION || !startWatch(chooser.getSelectedFile())) {
+                watchFolder.setSelected(false);
+            }
+        });
+
+        JMenuItem setDiscovery = new JMenuItem("Set Pencarian Folder (Subfolder & Pola)");
+        setDiscovery.addActionListener(e -> {
+            JTextField depthField = new JTextField(String.valueOf(settings.discoverDepth));
+            JTextField includeField = new JTextField(settings.discoverInclude);
+            JTextField excludeField = new JTextField(settings.discoverExclude);
+            JPanel panel = new JPanel(new GridLayout(0, 1, 2, 2));
+            panel.add(new JLabel("Kedalaman subfolder (0 = hanya folder itu, -1 = semua):"));
+            panel.add(depthField);
+            panel.add(new JLabel("Hanya file yang cocok (glob, pisah koma, kosong = semua PDF):"));
+            panel.add(includeField);
+            panel.add(new JLabel("Lewati file/folder yang cocok (contoh: arsip,*_draft.pdf):"));
+            panel.add(excludeField);
+            if (JOptionPane.showConfirmDialog(this, panel, "Pencarian Folder",
+                    JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION) {
+                return;
+            }
+            try {
+                int depth = Integer.parseInt(depthField.getText().trim());
+                if (depth < -1) {
+                    throw new NumberFormatException();
+                }
+                // cek pola dulu sebelum disimpan
+                new PdfDiscovery(depth, includeField.getText(), excludeField.getText());
+                settings.discoverDepth = depth;
+                settings.discoverInclude = includeField.getText().trim();
+                settings.discoverExclude = excludeField.getText().trim();
+                log("⚙️ Pencarian folder: " + settings.pdfDiscovery().describe());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Harap masukkan angka yang valid.");
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, "Pola tidak valid: " + ex.getMessage());
+            }
+        });
+
         JMenuItem setGsPath = new JMenuItem("Set Lokasi Ghostscript");
         setGsPath.addActionListener(e -> {
             JFileChooser chooser = new JFileChooser();
@@ -156,9 +546,9 @@ public class MergeFile extends JFrame {
             int result = chooser.showOpenDialog(null);
             if (result == JFileChooser.APPROVE_OPTION) {
                 File chosen = chooser.getSelectedFile();
-                gsPath = chosen.getAbsolutePath(); // simpan path Ghostscript
+                settings.gsPath = chosen.getAbsolutePath(); // simpan path Ghostscript
                 JOptionPane.showMessageDialog(null,
-                        "📌 Lokasi Ghostscript berhasil diset ke:\n" + gsPath);
+                        "📌 Lokasi Ghostscript berhasil diset ke:\n" + settings.gsPath);
             }
         });
 
@@ -182,23 +572,44 @@ public class MergeFile extends JFrame {
 
             if (pilih != null) {
                 if (pilih.startsWith("/screen")) {
-                    gsCompressionLevel = "/screen";
+                    settings.gsCompressionLevel = "/screen";
                 } else if (pilih.startsWith("/ebook")) {
-                    gsCompressionLevel = "/ebook";
+                    settings.gsCompressionLevel = "/ebook";
                 } else if (pilih.startsWith("/printer")) {
-                    gsCompressionLevel = "/printer";
+                    settings.gsCompressionLevel = "/printer";
                 } else if (pilih.startsWith("/prepress")) {
-                    gsCompressionLevel = "/prepress";
+                    settings.gsCompressionLevel = "/prepress";
                 }
 
                 JOptionPane.showMessageDialog(this,
-                        "Level kompresi diatur ke " + gsCompressionLevel,
+                        "Level kompresi diatur ke " + settings.gsCompressionLevel,
                         "Pengaturan", JOptionPane.INFORMATION_MESSAGE);
             }
         });
         menu.add(setGsPath);
         menu.add(setKompresiLevel);
+        menu.add(setMaxPdfSize);
+        menu.add(targetSizeMode);
+        menu.add(imageDpiOverride);
+        menu.add(setCompressEngine);
+        menu.add(setJavaCompressDpi);
+        menu.add(setGsProcesses);
+        menu.add(setGsTimeout);
         menu.add(setMaxSize);
+        menu.add(setConcurrentJobs);
+        menu.add(setMergeThreads);
+        menu.add(setRenderThreads);
+        menu.add(setJpgRender);
+        menu.add(setMergeMemory);
+        menu.add(setCacheSize);
+        menu.add(jobReport);
+        menu.add(jobManifest);
+        menu.add(setSplitMode);
+        menu.add(setArchive);
+        menu.add(setInputMode);
+        menu.add(inputScratch);
+        menu.add(setDiscovery);
+        menu.add(watchFolder);
         menu.add(resetOutput);
         menuBar.add(menu);
 
@@ -245,7 +656,7 @@ public class MergeFile extends JFrame {
 
         // Panel tengah (pilih folder output)
         JPanel outputPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
-        outputFolderField = new JTextField(outputBaseFolder.getAbsolutePath());
+        outputFolderField = new JTextField(settings.outputBaseFolder.getAbsolutePath());
         outputFolderField.setPreferredSize(new Dimension(300, 30));
         outputFolderField.setEditable(false);
         JButton chooseOutputButton = new JButton("Ganti Folder");
@@ -266,7 +677,7 @@ public class MergeFile extends JFrame {
         JButton compressPdfButton = new JButton("Kompres PDF");
         compressPdfButton.setPreferredSize(new Dimension(130, 30));
 
-        cancelButton = new JButton("Batal");
+        cancelButton = new JButton("Batal Job");
         cancelButton.setEnabled(false);
         cancelButton.setPreferredSize(new Dimension(130, 30));
 
@@ -285,10 +696,41 @@ public class MergeFile extends JFrame {
         logArea = new JTextArea(10, 65);
         logArea.setEditable(false);
         JScrollPane scrollPane = new JScrollPane(logArea);
+        logView = new LogView(logArea, 2_000);
+        logView.show(null, generalLog.snapshot()); // pesan sebelum UI siap
+
+        // Antrian job
+        JPanel queueToolbar = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        priorityBox = new JComboBox<>(JobScheduler.Priority.values());
+        priorityBox.setSelectedItem(JobScheduler.Priority.NORMAL);
+        JButton changePriorityButton = new JButton("Ubah Prioritas");
+        JButton showGeneralLogButton = new JButton("Log Umum");
+        JButton clearFinishedButton = new JButton("Bersihkan Selesai");
+        queueToolbar.add(new JLabel("Antrian Job — prioritas job baru:"));
+        queueToolbar.add(priorityBox);
+        queueToolbar.add(changePriorityButton);
+        queueToolbar.add(showGeneralLogButton);
+        queueToolbar.add(clearFinishedButton);
+
+        jobTableModel = new JobTableModel();
+        jobTable = new JTable(jobTableModel);
+        jobTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        jobTable.getColumnModel().getColumn(0).setMaxWidth(40);
+        jobTable.getColumnModel().getColumn(1).setPreferredWidth(300);
+        JScrollPane queueScroll = new JScrollPane(jobTable);
+        queueScroll.setPreferredSize(new Dimension(750, 150));
+
+        JPanel queuePanel = new JPanel(new BorderLayout(5, 5));
+        queuePanel.add(queueToolbar, BorderLayout.NORTH);
+        queuePanel.add(queueScroll, BorderLayout.CENTER);
+
+        JPanel centerPanel = new JPanel(new BorderLayout(5, 5));
+        centerPanel.add(outputPanel, BorderLayout.NORTH);
+        centerPanel.add(queuePanel, BorderLayout.CENTER);
 
         // Tambah ke frame
         add(topPanel, BorderLayout.NORTH);
-        add(outputPanel, BorderLayout.CENTER);
+        add(centerPanel, BorderLayout.CENTER);
 
         JPanel southPanel = new JPanel(new BorderLayout(5, 5));
         southPanel.add(bottomPanel, BorderLayout.NORTH);
@@ -303,7 +745,8 @@ public class MergeFile extends JFrame {
             chooser.setMultiSelectionEnabled(true);
             int result = chooser.showOpenDialog(this);
             if (result == JFileChooser.APPROVE_OPTION) {
-                folderMode = false;
+                cancelDiscovery();
+                selectedFolder = null;
                 selectedFiles.clear();
                 File[] files = chooser.getSelectedFiles();
                 for (File f : files) {
@@ -321,15 +764,7 @@ public class MergeFile extends JFrame {
             chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
             int result = chooser.showOpenDialog(this);
             if (result == JFileChooser.APPROVE_OPTION) {
-                folderMode = true;
-                selectedFiles.clear();
-                File folder = chooser.getSelectedFile();
-                File[] files = folder.listFiles((dir, name) -> name.toLowerCase().endsWith(".pdf"));
-                if (files != null) {
-                    selectedFiles.addAll(Arrays.asList(files));
-                }
-                fileField.setText("Path Asal: " + folder.getAbsolutePath()
-                        + " (" + selectedFiles.size() + " file PDF)");
+                discoverFolder(chooser.getSelectedFile());
             }
         });
 
@@ -339,18 +774,18 @@ public class MergeFile extends JFrame {
             chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
             int result = chooser.showOpenDialog(this);
             if (result == JFileChooser.APPROVE_OPTION) {
-                outputBaseFolder = chooser.getSelectedFile();
-                if (!outputBaseFolder.exists()) {
-                    outputBaseFolder.mkdirs();
+                settings.outputBaseFolder = chooser.getSelectedFile();
+                if (!settings.outputBaseFolder.exists()) {
+                    settings.outputBaseFolder.mkdirs();
                 }
-                outputFolderField.setText(outputBaseFolder.getAbsolutePath());
-                log("📂 Folder output diubah ke: " + outputBaseFolder.getAbsolutePath());
+                outputFolderField.setText(settings.outputBaseFolder.getAbsolutePath());
+                log("📂 Folder output diubah ke: " + settings.outputBaseFolder.getAbsolutePath());
             }
         });
 
         // gabungkan
         mergeButton.addActionListener(e -> {
-            if (selectedFiles.isEmpty()) {
+            if (selectedCount() == 0) {
                 JOptionPane.showMessageDialog(this, "Pilih file atau folder terlebih dahulu.");
                 return;
             }
@@ -361,7 +796,7 @@ public class MergeFile extends JFrame {
 
         // pisahkan
         splitButton.addActionListener(e -> {
-            if (selectedFiles.size() != 1) {
+            if (selectedCount() != 1) {
                 JOptionPane.showMessageDialog(this, "Pilih satu file PDF untuk dipisahkan.");
                 return;
             }
@@ -370,506 +805,370 @@ public class MergeFile extends JFrame {
 
         // convert PDF ke JPG
         convertPdfToJpgButton.addActionListener(e -> {
-            if (selectedFiles.isEmpty()) {
+            if (selectedCount() == 0) {
                 JOptionPane.showMessageDialog(this, "Pilih file PDF terlebih dahulu.");
                 return;
             }
-            if (selectedFiles.size() != 1) {
-                JOptionPane.showMessageDialog(this, "Pilih satu file PDF untuk dikonversi ke JPG.");
-                return;
-            }
-            startWorkerConvertPdfToJpg(selectedFiles.get(0));
+            // satu file atau banyak file sekaligus (satu subfolder per file)
+            startWorkerConvertPdfToJpg();
         });
 
         // Kompres PDF
         compressPdfButton.addActionListener(e -> {
-            if (selectedFiles.size() != 1) {
-                JOptionPane.showMessageDialog(this, "Pilih satu file PDF untuk dikompres.");
+            if (selectedCount() == 0) {
+                JOptionPane.showMessageDialog(this, "Pilih file atau folder PDF untuk dikompres.");
                 return;
             }
-            startWorkerCompressPdf(selectedFiles.get(0));
+            startWorkerCompressPdf();
         });
 
-        // batal
+        // batal: hanya job yang sedang dipilih
         cancelButton.addActionListener(e -> {
-            if (worker != null && !worker.isDone()) {
-                worker.cancel(true);
-                log("❌ Proses dibatalkan oleh pengguna.");
+            if (shownJob != null) {
+                scheduler.cancel(shownJob);
             }
         });
-        detectGhostscript();
-    }
 
-    private void startWorker(boolean isMerge) {
-        progressBar.setValue(0);
-        logArea.setText("");
-        cancelButton.setEnabled(true);
-        startTimeMillis = System.currentTimeMillis(); // gunakan field kelas, bukan lokal
+        // pilih job di tabel → log dan progress job itu yang tampil
+        jobTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting() && jobTable.getSelectedRow() >= 0) {
+                showJob(jobTableModel.jobs.get(jobTable.convertRowIndexToModel(jobTable.getSelectedRow())));
+            }
+        });
+
+        changePriorityButton.addActionListener(e -> {
+            if (shownJob == null || shownJob.status != JobScheduler.Status.MENUNGGU) {
+                JOptionPane.showMessageDialog(this, "Pilih job yang masih menunggu di antrian.");
+                return;
+            }
+            scheduler.changePriority(shownJob, (JobScheduler.Priority) priorityBox.getSelectedItem());
+        });
+
+        showGeneralLogButton.addActionListener(e -> {
+            jobTable.clearSelection();
+            showJob(null);
+        });
+
+        clearFinishedButton.addActionListener(e -> {
+            jobTableModel.removeFinished();
+            if (shownJob != null && !jobTableModel.jobs.contains(shownJob)) {
+                showJob(null);
+            }
+        });
+
+        // waktu proses job yang berjalan diperbarui tiap detik
         Timer timer = new javax.swing.Timer(1000, e -> {
-            long elapsed = System.currentTimeMillis() - startTimeMillis;
-            long seconds = (elapsed / 1000) % 60;
-            long minutes = (elapsed / 1000) / 60;
-            progressBar.setString("⏱ Waktu proses: " + minutes + " menit " + seconds + " detik");
+            jobTableModel.refreshRunning();
+            updateProgressBar();
         });
         timer.start();
+        // sisa antrian log ditulis ke file sebelum JVM berhenti
+        Runtime.getRuntime().addShutdownHook(new Thread(fileLog::close));
+        log("📝 Log lengkap: " + fileLog.getFile().getAbsolutePath());
+        detectGhostscript();
+    }
 
-        worker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                try {
-                    String today = new SimpleDateFormat("yyyy-MM-dd").format(new Date());
-
-                    if (isMerge) {
-                        // === MERGE ===
-                        File parentFolder = selectedFiles.get(0).getParentFile();
-                        String folderName = parentFolder.getName();
-
-                        File outputDir = new File(outputBaseFolder,
-                                "Hasil_Gabung/" + today + "/" + folderName);
-                        if (!outputDir.exists()) {
-                            outputDir.mkdirs();
-                        }
-
-                        if (folderMode) {
-                            Map<String, List<File>> grouped = new HashMap<>();
-                            for (File pdf : selectedFiles) {
-                                String name = pdf.getName().replace(".pdf", "");
-                                String sepNumber = name.contains("_") ? name.split("_")[0] : name;
-                                grouped.computeIfAbsent(sepNumber, k -> new ArrayList<>()).add(pdf);
-                            }
-
-                            int total = grouped.size();
-                            int count = 0;
-
-                            for (Map.Entry<String, List<File>> entry : grouped.entrySet()) {
-                                if (isCancelled()) {
-                                    break;
-                                }
-
-                                String sepNumber = entry.getKey();
-                                List<File> files = entry.getValue();
-                                files.sort(Comparator.comparing(File::getName));
-
-                                PDFMergerUtility merger = new PDFMergerUtility();
-                                for (File f : files) {
-                                    if (isCancelled()) {
-                                        break;
-                                    }
-                                    try {
-                                        merger.addSource(f);
-                                        publish("Menggabungkan: " + f.getName());
-                                    } catch (Exception ex) {
-                                        logError("Gabung PDF", ex, f);
-                                        continue; // lanjut ke file berikutnya
-                                    }
-                                    try {
-                                        Thread.sleep(100); // simulasi proses per file
-                                    } catch (InterruptedException ex) {
-                                        if (isCancelled()) {
-                                            break;
-                                        }
-                                    }
-                                }
-
-                                File outputFile = new File(outputDir, sepNumber + ".pdf");
-                                merger.setDestinationFileName(outputFile.getAbsolutePath());
-                                merger.mergeDocuments(null);
-
-                                count++;
-                                int progress = (int) ((count * 100.0f) / total);
-                                setProgress(progress);
-                                publish("✔️ Selesai: " + outputFile.getName());
-                            }
-                        } else {
-                            if (selectedFiles.size() < 2) {
-                                publish("⚠️ Minimal pilih 2 file untuk digabung.");
-                                return null;
-                            }
-
-                            String outputName = selectedFiles.get(0).getName().replace(".pdf", "");
-                            File outputFile = new File(outputDir, outputName + ".pdf");
-
-                            PDFMergerUtility merger = new PDFMergerUtility();
-                            int total = selectedFiles.size();
-                            int count = 0;
-
-                            for (File f : selectedFiles) {
-                                if (isCancelled()) {
-                                    break;
-                                }
-                                merger.addSource(f);
-                                publish("Menggabungkan: " + f.getName());
-                                count++;
-                                int progress = (int) ((count * 100.0f) / total);
-                                setProgress(progress);
-                            }
-                            merger.setDestinationFileName(outputFile.getAbsolutePath());
-                            merger.mergeDocuments(null);
-                            publish("✔️ Selesai: " + outputFile.getName());
-                        }
+    private void startWorker(boolean isMerge) {
+        startJob(isMerge ? BatchEngine.Operation.MERGE : BatchEngine.Operation.SPLIT);
+    }
 
-                    } else {
-                        // === SPLIT ===
-                        File fileToSplit = selectedFiles.get(0);
-
-                        File parentFolder = fileToSplit.getParentFile();
-                        String folderName = parentFolder.getName();
-
-                        File outputDir = new File(outputBaseFolder,
-                                "Hasil_Split/" + today + "/" + folderName);
-                        if (!outputDir.exists()) {
-                            outputDir.mkdirs();
-                        }
-
-                        PDDocument document = PDDocument.load(fileToSplit);
-                        int pageCount = document.getNumberOfPages();
-
-                        for (int i = 0; i < pageCount; i++) {
-                            if (isCancelled()) {
-                                break;
-                            }
-
-                            try {
-                                Thread.sleep(100); // simulasi proses per page
-                            } catch (InterruptedException ex) {
-                                if (isCancelled()) {
-                                    break;
-                                }
-                            }
-
-                            try {
-                                PDDocument newDoc = new PDDocument();
-                                newDoc.addPage(document.getPage(i));
-
-                                File outFile = new File(outputDir,
-                                        fileToSplit.getName().replace(".pdf", "") + "_" + (i + 1) + ".pdf");
-                                newDoc.save(outFile);
-                                newDoc.close();
-
-                                int progress = (int) (((i + 1) * 100.0f) / pageCount);
-                                setProgress(progress);
-                                publish("Membuat: " + outFile.getName());
-                            } catch (Exception ex) {
-                                logError("Split PDF", ex, fileToSplit);
-                                continue; // lanjut ke halaman berikutnya
-                            }
-                        }
-
-                        document.close();
-                    }
+    private void startWorkerCompressPdf() {
+        startJob(BatchEngine.Operation.COMPRESS);
+    }
 
-                } catch (IOException ex) {
-                    publish("❌ Error: " + ex.getMessage());
-                }
-                // hitung total waktu
-                long endTime = System.currentTimeMillis();
-                long durationSec = (endTime - startTimeMillis) / 1000;
-                long minutes = durationSec / 60;
-                long seconds = durationSec % 60;
-                publish("⏱ Total waktu: " + minutes + " menit " + seconds + " detik");
+    private void startWorkerConvertPdfToJpg() {
+        startJob(BatchEngine.Operation.JPG);
+    }
 
-                return null;
+    private int selectedCount() {
+        return selectedFolder != null ? selectedFolderCount : selectedFiles.size();
+    }
+
+    // job masuk antrian dengan salinan pengaturan saat ini; form langsung dikosongkan untuk job berikutnya
+    private void startJob(BatchEngine.Operation operation) {
+        if (discoveryWorker != null) {
+            JOptionPane.showMessageDialog(this, "Pencarian file PDF masih berjalan, tunggu sampai selesai.");
+            return;
+        }
+        JobScheduler.Priority priority = (JobScheduler.Priority) priorityBox.getSelectedItem();
+        JobScheduler.Job job = selectedFolder != null
+                ? scheduler.submitFolder(operation, selectedFolder, settings.copy(), priority)
+                : scheduler.submit(operation, new ArrayList<>(selectedFiles), false, settings.copy(), priority);
+        if (shownJob == null || isFinished(shownJob)) {
+            SwingUtilities.invokeLater(() -> selectJob(job));
+        }
+        selectedFiles.clear();
+        selectedFolder = null;
+        selectedFolderCount = 0;
+        fileField.setText("");
+    }
+
+    // pencarian di luar EDT, hanya menghitung: jumlahnya tampil selama mencari, daftar file tidak
+    // disimpan (folder besar bisa berisi jutaan PDF). Job mencari lagi saat jalan.
+    private void discoverFolder(File folder) {
+        cancelDiscovery();
+        selectedFiles.clear();
+        selectedFolder = folder;
+        selectedFolderCount = 0;
+        PdfDiscovery discovery = settings.pdfDiscovery();
+        fileField.setText("Mencari PDF di " + folder.getAbsolutePath() + " …");
+
+        SwingWorker<Integer, Integer> worker = new SwingWorker<Integer, Integer>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                AtomicInteger count = new AtomicInteger();
+                discovery.walk(folder, found -> publish(count.incrementAndGet()), this::isCancelled);
+                return count.get();
             }
 
             @Override
-            protected void process(List<String> chunks) {
-                for (String msg : chunks) {
-                    log(msg);
+            protected void process(List<Integer> chunks) {
+                if (discoveryWorker != this) {
+                    return;
                 }
+                // dari beberapa thread pencari, jadi belum tentu urut
+                fileField.setText("Mencari PDF di " + folder.getAbsolutePath() + " … "
+                        + Collections.max(chunks) + " file ditemukan");
             }
 
             @Override
             protected void done() {
-                cancelButton.setEnabled(false);
-                if (timer != null) {
-                    timer.stop();  // 🔴 stop timer
+                if (discoveryWorker != this) {
+                    return; // sudah diganti pilihan lain
                 }
-                if (isCancelled()) {
-                    log("❌ Proses dibatalkan.");
-                } else {
-                    log("✅ Proses selesai.");
+                discoveryWorker = null;
+                try {
+                    selectedFolderCount = get();
+                    fileField.setText("Path Asal: " + folder.getAbsolutePath()
+                            + " (" + selectedFolderCount + " file PDF)");
+                    if (discovery.getSkippedDirs() > 0) {
+                        log("⚠️ " + discovery.getSkippedDirs() + " folder tidak bisa dibaca dan dilewati.");
+                    }
+                } catch (Exception ex) {
+                    selectedFolder = null;
+                    selectedFolderCount = 0;
+                    fileField.setText("");
+                    log("❌ Pencarian file gagal: " + ex.getMessage());
                 }
-                showFinalErrorReport(); // 🔽 tampilkan rangkuman error kalau ada
-                selectedFiles.clear();
-                fileField.setText("");
             }
         };
-
-        worker.addPropertyChangeListener(evt -> {
-            if ("progress".equals(evt.getPropertyName())) {
-                progressBar.setValue((Integer) evt.getNewValue());
-            }
-        });
-
+        discoveryWorker = worker;
         worker.execute();
     }
 
-    private void startWorkerCompressPdf(File pdfFile) {
-        progressBar.setValue(0);
-        logArea.setText("");
-        cancelButton.setEnabled(true);
-
-        startTimeMillis = System.currentTimeMillis();
-        Timer timer = new javax.swing.Timer(1000, e -> {
-            long elapsed = System.currentTimeMillis() - startTimeMillis;
-            long seconds = (elapsed / 1000) % 60;
-            long minutes = (elapsed / 1000) / 60;
-            progressBar.setString("⏱ Waktu proses: " + minutes + " menit " + seconds + " detik");
-        });
-        timer.start();
-
-        worker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() {
-                try {
-                    String today = new SimpleDateFormat("yyyy-MM-dd").format(new Date());
-                    File outputDir = new File(outputBaseFolder, "Hasil_Kompres/" + today + "/");
-                    if (!outputDir.exists()) {
-                        outputDir.mkdirs();
-                    }
+    private void cancelDiscovery() {
+        if (discoveryWorker != null) {
+            SwingWorker<Integer, Integer> worker = discoveryWorker;
+            discoveryWorker = null;
+            worker.cancel(true);
+        }
+    }
 
-                    File outFile = new File(outputDir, pdfFile.getName().replace(".pdf", "_compressed.pdf"));
-
-                    // ===== Jalankan Ghostscript =====
-                    List<String> command = new ArrayList<>();
-                    command.add(gsPath); // gunakan path yang dipilih user, default "gs"
-                    command.add("-sDEVICE=pdfwrite");
-                    command.add("-dCompatibilityLevel=1.4");
-                    command.add("-dPDFSETTINGS=" + gsCompressionLevel); // bisa diganti /screen, /ebook, /printer
-                    command.add("-dNOPAUSE");
-                    command.add("-dQUIET");
-                    command.add("-dBATCH");
-                    command.add("-sOutputFile=" + outFile.getAbsolutePath());
-                    command.add(pdfFile.getAbsolutePath());
-
-                    ProcessBuilder pb = new ProcessBuilder(command);
-                    pb.redirectErrorStream(true);
-                    Process process = pb.start();
-
-                    // baca log GS
-                    try (Scanner sc = new Scanner(process.getInputStream())) {
-                        while (sc.hasNextLine()) {
-                            if (isCancelled()) {
-                                process.destroyForcibly();
-                                break;
-                            }
-                            try {
-                                Thread.sleep(100); // simulasi proses per page
-                            } catch (InterruptedException ex) {
-                                if (isCancelled()) {
-                                    break;
-                                }
-                            }
-                            publish("GS: " + sc.nextLine());
-                        }
-                    }
+    // gabung semua grup sekali, lalu tiap perubahan di folder jadi job baru berisi grup yang berubah saja
+    private boolean startWatch(File folder) {
+        stopWatch();
+        FolderWatcher watcher;
+        try {
+            watcher = new FolderWatcher(folder, 3000);
+        } catch (IOException ex) {
+            log("❌ Folder tidak bisa dipantau: " + ex.getMessage());
+            return false;
+        }
+        folderWatcher = watcher;
 
-                    int exitCode = process.waitFor();
-                    if (exitCode == 0) {
-                        long fileSizeKb = outFile.length() / 1024;
-                        if (fileSizeKb > maxPdfSizeKb) {
-                            publish("⚠️ Ukuran hasil: " + fileSizeKb + " KB (target " + maxPdfSizeKb + " KB)");
-                        } else {
-                            publish("✔️ File terkompresi: " + outFile.getName() + " (" + fileSizeKb + " KB)");
-                        }
-                    } else {
-                        logError("Kompres PDF", new RuntimeException("Exit code: " + exitCode), pdfFile);
-                    }
+        File[] files = folder.listFiles((dir, name) -> name.toLowerCase().endsWith(".pdf"));
+        if (files != null && files.length > 0) {
+            scheduler.submit(BatchEngine.Operation.MERGE, new ArrayList<>(Arrays.asList(files)), true,
+                    settings.copy(), JobScheduler.Priority.NORMAL);
+        }
+        log("👀 Memantau folder: " + folder.getAbsolutePath());
+
+        Thread thread = new Thread(() -> {
+            try {
+                watcher.run(groups -> SwingUtilities.invokeLater(() -> onGroupsChanged(folder, groups)));
+            } catch (IOException ex) {
+                log("❌ Pemantauan berhenti: " + ex.getMessage());
+            } catch (InterruptedException ex) {
+                // stopWatch()
+            }
+            log("⏹ Pemantauan folder selesai: " + folder.getAbsolutePath());
+        }, "pantau-folder");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
 
-                } catch (Exception ex) {
-                    publish("❌ Error kompres: " + ex.getMessage());
-                    ex.printStackTrace();
-                }
+    private void stopWatch() {
+        if (folderWatcher != null) {
+            folderWatcher.close();
+            folderWatcher = null;
+        }
+    }
 
-                long endTime = System.currentTimeMillis();
-                long durationSec = (endTime - startTimeMillis) / 1000;
-                long minutes = durationSec / 60;
-                long seconds = durationSec % 60;
-                publish("⏱ Total waktu: " + minutes + " menit " + seconds + " detik");
-                return null;
+    private void onGroupsChanged(File folder, Map<String, List<File>> groups) {
+        log("🔁 " + groups.size() + " grup berubah di " + folder.getName() + ": " + String.join(", ", groups.keySet()));
+        List<String> emptied = new ArrayList<>();
+        List<File> changed = new ArrayList<>();
+        for (Map.Entry<String, List<File>> entry : groups.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                emptied.add(entry.getKey());
+            } else {
+                changed.addAll(entry.getValue());
             }
+        }
+        if (!emptied.isEmpty()) {
+            // hanya menghapus hasil grup yang sudah kosong: tanpa BatchEngine, jadi tidak ada
+            // cache/manifest yang dibuka di EDT
+            BatchEngine.deleteEmptiedGroups(settings, folder, emptied, new JobListener() {
+                @Override
+                public void log(String message) {
+                    MergeFile.this.log(message);
+                }
 
-            @Override
-            protected void process(List<String> chunks) {
-                for (String msg : chunks) {
-                    log(msg);
+                @Override
+                public void error(String context, Exception ex, File file) {
+                    MergeFile.this.log("❌ Error pada " + context + " → " + ex.getMessage());
                 }
-            }
 
-            @Override
-            protected void done() {
-                if (timer != null) {
-                    timer.stop();
+                @Override
+                public void progress(int percent) {
                 }
-                cancelButton.setEnabled(false);
-                if (isCancelled()) {
-                    log("❌ Kompres dibatalkan.");
-                } else {
-                    log("✅ Kompres PDF selesai.");
+
+                @Override
+                public boolean isCancelled() {
+                    return false;
                 }
-                showFinalErrorReport(); // 🔽 tampilkan rangkuman error kalau ada
-                selectedFiles.clear();
-                fileField.setText("");
-            }
-        };
+            });
+        }
+        if (!changed.isEmpty()) {
+            scheduler.submit(BatchEngine.Operation.MERGE, changed, true, settings.copy(), JobScheduler.Priority.NORMAL);
+        }
+    }
 
-        worker.addPropertyChangeListener(evt -> {
-            if ("progress".equals(evt.getPropertyName())) {
-                progressBar.setValue((Integer) evt.getNewValue());
-            }
-        });
+    private static boolean isFinished(JobScheduler.Job job) {
+        return job.status != JobScheduler.Status.MENUNGGU && job.status != JobScheduler.Status.BERJALAN;
+    }
 
-        worker.execute();
+    private void onJobChanged(JobScheduler.Job job) {
+        jobTableModel.update(job);
+        if (job == shownJob) {
+            updateProgressBar();
+        }
     }
 
-    private void startWorkerConvertPdfToJpg(File pdfFile) {
-        progressBar.setValue(0);
-        logArea.setText("");
-        cancelButton.setEnabled(true);
+    private void selectJob(JobScheduler.Job job) {
+        int row = jobTableModel.jobs.indexOf(job);
+        if (row >= 0) {
+            int viewRow = jobTable.convertRowIndexToView(row);
+            jobTable.setRowSelectionInterval(viewRow, viewRow);
+        }
+    }
 
-        startTimeMillis = System.currentTimeMillis();
-        Timer timer = new javax.swing.Timer(1000, e -> {
-            long elapsed = System.currentTimeMillis() - startTimeMillis;
-            long seconds = (elapsed / 1000) % 60;
-            long minutes = (elapsed / 1000) / 60;
-            progressBar.setString("⏱ Waktu proses: " + minutes + " menit " + seconds + " detik");
-        });
-        timer.start();
+    private void showJob(JobScheduler.Job job) {
+        shownJob = job;
+        logView.show(job, job == null ? generalLog.snapshot() : job.getLog());
+        updateProgressBar();
+    }
 
-        worker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                try {
-                    String today = new SimpleDateFormat("yyyy-MM-dd").format(new Date());
-                    File parentFolder = pdfFile.getParentFile();
-                    String folderName = parentFolder.getName();
-
-                    File outputDir = new File(outputBaseFolder,
-                            "Hasil_PDF2JPG/" + today + "/");
-                    if (!outputDir.exists()) {
-                        outputDir.mkdirs();
-                    }
+    private void updateProgressBar() {
+        JobScheduler.Job job = shownJob;
+        cancelButton.setEnabled(job != null && !isFinished(job));
+        if (job == null) {
+            progressBar.setValue(0);
+            progressBar.setString("Berjalan: " + scheduler.getRunningCount() + " job, menunggu: "
+                    + scheduler.getWaitingCount() + " job");
+            return;
+        }
+        progressBar.setValue(job.progress);
+        long elapsedSec = job.elapsedMillis() / 1000;
+        progressBar.setString("#" + job.id + " " + job.status + " — ⏱ Waktu proses: " + (elapsedSec / 60)
+                + " menit " + (elapsedSec % 60) + " detik");
+    }
 
-                    PDDocument document = PDDocument.load(pdfFile);
-                    PDFRenderer pdfRenderer = new PDFRenderer(document);
-
-                    int pageCount = document.getNumberOfPages();
-                    for (int i = 0; i < pageCount; i++) {
-                        if (isCancelled()) {
-                            break;
-                        }
-                        try {
-                            Thread.sleep(100); // simulasi proses per page
-                        } catch (InterruptedException ex) {
-                            if (isCancelled()) {
-                                break;
-                            }
-                        }
-
-                        try {
-                            BufferedImage bim = pdfRenderer.renderImageWithDPI(i, 300); // resolusi 300 DPI
-                            String baseName = pdfFile.getName().replaceFirst("[.][^.]+$", "");
-                            String outputFileName;
-                            if (pageCount == 1) {
-                                outputFileName = baseName + ".jpg";
-                            } else {
-                                outputFileName = baseName + (i + 1) + ".jpg";
-                            }
-                            File outFile = new File(outputDir, outputFileName);
-
-                            float quality = 1.0f;
-                            while (true) {
-                                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                                ImageWriter jpgWriter = ImageIO.getImageWritersByFormatName("jpg").next();
-                                ImageWriteParam jpgWriteParam = jpgWriter.getDefaultWriteParam();
-                                jpgWriteParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
-                                jpgWriteParam.setCompressionQuality(quality);
-
-                                try (ImageOutputStream ios = ImageIO.createImageOutputStream(baos)) {
-                                    jpgWriter.setOutput(ios);
-                                    jpgWriter.write(null, new IIOImage(bim, null, null), jpgWriteParam);
-                                }
-                                jpgWriter.dispose();
-
-                                byte[] jpgBytes = baos.toByteArray();
-                                long fileSizeKb = jpgBytes.length / 1024;
-
-                                if (fileSizeKb <= maxFileSizeKb || quality <= 0.1f) {
-                                    try (FileOutputStream fos = new FileOutputStream(outFile)) {
-                                        fos.write(jpgBytes);
-                                    }
-                                    break;
-                                } else {
-                                    quality -= 0.05f;
-                                }
-                            }
-
-                            int progress = (int) (((i + 1) * 100.0f) / pageCount);
-                            setProgress(progress);
-                            publish("Membuat JPG: " + outFile.getName());
-
-                        } catch (Exception ex) {
-                            logError("Convert PDF → JPG", ex, pdfFile);
-                            continue; // lanjut ke halaman berikutnya walau error
-                        }
-                    }
+    private static String formatElapsed(long millis) {
+        long sec = millis / 1000;
+        return String.format("%d:%02d", sec / 60, sec % 60);
+    }
 
-                    document.close();
+    // tabel antrian: urutan baris = urutan job masuk
+    private final class JobTableModel extends AbstractTableModel {
 
-                } catch (IOException ex) {
-                    publish("❌ Error convert: " + ex.getMessage());
-                }
-                // hitung total waktu
-                long endTime = System.currentTimeMillis();
-                long durationSec = (endTime - startTimeMillis) / 1000;
-                long minutes = durationSec / 60;
-                long seconds = durationSec % 60;
-                publish("⏱ Total waktu: " + minutes + " menit " + seconds + " detik");
-                return null;
-            }
+        private final String[] columns = {"#", "Proses", "Prioritas", "Status", "Progress", "Waktu", "Error"};
+        final List<JobScheduler.Job> jobs = new ArrayList<>();
 
-            @Override
-            protected void process(List<String> chunks) {
-                for (String msg : chunks) {
-                    log(msg);
-                }
+        void update(JobScheduler.Job job) {
+            int row = jobs.indexOf(job);
+            if (row < 0) {
+                jobs.add(job);
+                fireTableRowsInserted(jobs.size() - 1, jobs.size() - 1);
+            } else {
+                fireTableRowsUpdated(row, row);
             }
+        }
 
-            @Override
-            protected void done() {
-                if (timer != null) {
-                    timer.stop();
-                }
-                cancelButton.setEnabled(false);
-                if (isCancelled()) {
-                    log("❌ Konversi dibatalkan.");
-                } else {
-                    log("✅ Konversi PDF ke JPG selesai.");
+        void refreshRunning() {
+            for (int row = 0; row < jobs.size(); row++) {
+                if (jobs.get(row).status == JobScheduler.Status.BERJALAN) {
+                    fireTableCellUpdated(row, 5);
                 }
-                showFinalErrorReport();// 🔽 tampilkan rangkuman error kalau ada
-                selectedFiles.clear();// 🔄 Kosongkan form setelah proses selesai
-                fileField.setText("");
             }
-        };
+        }
 
-        worker.addPropertyChangeListener(evt -> {
-            if ("progress".equals(evt.getPropertyName())) {
-                progressBar.setValue((Integer) evt.getNewValue());
-            }
-        });
+        void removeFinished() {
+            jobs.removeIf(MergeFile::isFinished);
+            fireTableDataChanged();
+        }
 
-        worker.execute();
+        @Override
+        public int getRowCount() {
+            return jobs.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            JobScheduler.Job job = jobs.get(row);
+            switch (column) {
+                case 0:
+                    return job.id;
+                case 1:
+                    return job.describe();
+                case 2:
+                    return job.priority;
+                case 3:
+                    return job.status;
+                case 4:
+                    return job.progress + "%";
+                case 5:
+                    return formatElapsed(job.elapsedMillis());
+                default:
+                    return job.errorCount();
+            }
+        }
     }
 
+    // pesan umum (pengaturan, Ghostscript); log job ditampilkan lewat showJob
+    // boleh dari thread mana saja
     private void log(String message) {
-        if (logArea != null) {
-            logArea.append(message + "\n");
-            logArea.setCaretPosition(logArea.getDocument().getLength());
-        } else {
+        generalLog.add(message);
+        fileLog.write(message);
+        if (logView == null) {
             System.out.println(message); // fallback ke console kalau UI belum siap
+        } else {
+            logView.post(null, message);
         }
     }
 
+    // tanpa jendela lewat MergeFileCli; java -jar memilih lewat Launcher
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> new MergeFile().setVisible(true));
     }
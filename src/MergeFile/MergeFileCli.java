@@ -0,0 +1,537 @@
+package MergeFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Jalan tanpa jendela untuk server batch / cron, memakai inti proses yang sama dengan GUI (BatchEngine).
+// Kelas ini tidak menyentuh Swing/AWT, jalankan langsung:
+//   java -cp MergeFile.jar MergeFile.MergeFileCli <gabung|split|kompres|jpg> [opsi] <file/folder>...
+// Kode keluar: 0 = berhasil, 1 = sebagian gagal, 2 = argumen salah, 3 = tidak ada hasil, 130 = dihentikan.
+public final class MergeFileCli {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_PARTIAL = 1;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_FAILED = 3;
+    static final int EXIT_INTERRUPTED = 130;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Pemakaian: MergeFileCli <gabung|split|kompres|jpg> [opsi] <file/folder>...",
+            "",
+            "  gabung   2 file atau lebih → satu PDF; satu folder → gabung per grup (nomor sebelum \"_\")",
+            "  split    satu file PDF dipecah sesuai --split",
+            "  kompres  file/folder PDF dikompres (Ghostscript atau Java)",
+            "  jpg      file/folder PDF → JPG",
+            "  serve    jalankan layanan HTTP lokal (lihat MergeFileServer --help)",
+            "",
+            "Opsi:",
+            "  --out <folder>           folder output (default: Output)",
+            "  --max-jpg-kb <n>         ukuran maksimal JPG (default 200)",
+            "  --jpg-dpi <n>            resolusi PDF → JPG (default 300)",
+            "  --jpg-mode <mode>        rgb (default) | gray | bw (hitam-putih 1 bit) | auto (abu-abu kalau",
+            "                           halaman tidak berwarna, dicek per halaman)",
+            "  --max-pdf-kb <n>         ukuran maksimal PDF hasil kompres (default 200)",
+            "  --gs-level <level>       /screen, /ebook, /printer atau /prepress (default /ebook)",
+            "  --gs-path <path>         lokasi Ghostscript (default: dicari otomatis)",
+            "  --gs-timeout <detik>     batas waktu per proses gs, 0 = tanpa batas (default 300)",
+            "  --engine <gs|java>       mesin kompres (default gs)",
+            "  --java-dpi <n>           DPI gambar untuk mesin kompres Java (default 150)",
+            "  --target-size            kompres bertahap sampai <= --max-pdf-kb",
+            "  --target-dpi             mode target boleh turunkan resolusi gambar",
+            "  --threads <n>            jumlah thread gabung, render JPG dan proses kompres",
+            "  --split <mode>           halaman | rentang:1-3,5 | per:10 | maks-mb:10 (default halaman)",
+            "  --archive <zip|tar>      hasil split / jpg langsung ke satu arsip, bukan file terpisah",
+            "  --mapped                 baca PDF lewat memory-mapped file",
+            "  --scratch                objek PDF hasil parsing disimpan di file sementara",
+            "  --merge-heap-mb <n>      batas heap untuk gabung, sisanya ke file sementara",
+            "  --depth <n>              subfolder yang ikut dicari: 0 = hanya folder itu (default), -1 = semua",
+            "  --include <glob,...>     hanya file yang cocok, contoh \"*_scan*.pdf,2024/**\"",
+            "  --exclude <glob,...>     lewati file/folder yang cocok, contoh \"arsip,*_draft.pdf\"",
+            "  --cache-mb <n>           batas cache hasil di <out>/.cache (default 1024, 0 = mati)",
+            "  --no-report              jangan tulis laporan JSON job ke <out>/laporan",
+            "  --manifest               tulis manifest XLSX (tiap input, hasil, halaman, ukuran, error) ke <out>/laporan",
+            "  --watch                  gabung folder: setelah selesai, pantau folder dan gabung ulang",
+            "                           hanya grup yang berubah (berhenti dengan Ctrl+C)",
+            "  --watch-delay <detik>    tunggu folder tenang sebelum gabung ulang (default 3)",
+            "  -q, --quiet              hanya tampilkan error dan ringkasan");
+
+    // diset oleh shutdown hook; saat JVM sedang shutdown System.exit() akan menggantung
+    private static volatile boolean shuttingDown = false;
+
+    private MergeFileCli() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && "serve".equals(args[0])) {
+            // mode layanan HTTP, JVM tetap hidup selama server berjalan
+            MergeFileServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        int code = run(args);
+        if (!shuttingDown) {
+            System.exit(code);
+        }
+    }
+
+    static int run(String[] args) {
+        // jangan sampai ada kode yang membuka display di server tanpa X
+        System.setProperty("java.awt.headless", "true");
+        PrintStream out = utf8(System.out);
+        PrintStream err = utf8(System.err);
+
+        if (args.length == 0 || "-h".equals(args[0]) || "--help".equals(args[0])) {
+            out.println(USAGE);
+            return args.length == 0 ? EXIT_USAGE : EXIT_OK;
+        }
+
+        BatchEngine.Operation operation = parseOperation(args[0]);
+        if (operation == null) {
+            err.println("❌ Perintah tidak dikenal: " + args[0]);
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        JobSettings settings = new JobSettings();
+        List<String> paths = new ArrayList<>();
+        boolean quiet = false;
+        boolean gsPathSet = false;
+        boolean watch = false;
+        int watchDelaySec = 3;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                String arg = args[i];
+                if ("-q".equals(arg) || "--quiet".equals(arg)) {
+                    quiet = true;
+                } else if ("--watch".equals(arg)) {
+                    watch = true;
+                } else if ("--watch-delay".equals(arg) && i + 1 < args.length) {
+                    watchDelaySec = positive(args[++i]);
+                } else if (!arg.startsWith("--")) {
+                    paths.add(arg);
+                } else if (!applyFlag(settings, arg)) {
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("Opsi " + arg + " butuh nilai");
+                    }
+                    applyOption(settings, arg, args[++i]);
+                    gsPathSet |= "--gs-path".equals(arg);
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            // NumberFormatException juga turunan IllegalArgumentException
+            err.println("❌ " + (ex instanceof NumberFormatException ? "Angka tidak valid: " : "") + ex.getMessage());
+            return EXIT_USAGE;
+        }
+
+        boolean folderMode = paths.size() == 1 && new File(paths.get(0)).isDirectory();
+        // gabung satu folder: PDF dicari oleh engine dan langsung masuk manifest grup, tanpa daftar file
+        File mergeFolder = folderMode && operation == BatchEngine.Operation.MERGE ? new File(paths.get(0)) : null;
+        List<File> files = mergeFolder != null ? List.of() : collectPdfs(paths, settings, err);
+        if (files == null) {
+            return EXIT_USAGE;
+        }
+        if (files.isEmpty() && mergeFolder == null) {
+            err.println("⚠️ Tidak ada file PDF yang dipilih.");
+            return EXIT_USAGE;
+        }
+        if (operation == BatchEngine.Operation.SPLIT && files.size() != 1) {
+            err.println("⚠️ Pilih satu file PDF untuk dipisahkan.");
+            return EXIT_USAGE;
+        }
+        if (watch && (operation != BatchEngine.Operation.MERGE || !folderMode)) {
+            err.println("⚠️ --watch hanya untuk gabung satu folder.");
+            return EXIT_USAGE;
+        }
+
+        CliListener listener = new CliListener(out, err, quiet);
+        if (operation == BatchEngine.Operation.COMPRESS && "gs".equals(settings.compressEngine) && !gsPathSet) {
+            settings.detectGhostscript(listener::log);
+        }
+
+        // Ctrl+C / kill: proses diminta berhenti dan diberi waktu membereskan file sementara
+        Thread mainThread = Thread.currentThread();
+        Thread shutdownHook = new Thread(() -> {
+            shuttingDown = true;
+            listener.cancelled = true;
+            mainThread.interrupt();
+            try {
+                mainThread.join(10_000);
+            } catch (InterruptedException ignored) {
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        BatchEngine engine = new BatchEngine(settings, listener);
+        File outputDir = mergeFolder != null
+                ? engine.mergeOutputDir(mergeFolder.getAbsoluteFile()) : engine.outputDir(operation, files);
+        Map<String, Long> before = snapshot(outputDir);
+        AtomicInteger filesIn = new AtomicInteger(files.size());
+        AtomicLong bytesIn = new AtomicLong();
+        for (File f : files) {
+            bytesIn.addAndGet(f.length());
+        }
+
+        long start = System.nanoTime();
+        boolean crashed = false;
+        try {
+            if (mergeFolder != null) {
+                // dipanggil dari thread pencari, karena itu penghitungnya atomic
+                engine.runFolder(operation, mergeFolder, settings.pdfDiscovery(), found -> {
+                    filesIn.incrementAndGet();
+                    bytesIn.addAndGet(found.length());
+                });
+            } else {
+                engine.run(operation, files, folderMode);
+            }
+        } catch (InterruptedException ex) {
+            listener.cancelled = true;
+        } catch (Exception ex) {
+            crashed = true;
+            listener.error(operation.name(), ex, mergeFolder != null ? mergeFolder : files.get(0));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // hasil = file di folder output yang baru dibuat atau berubah selama proses ini
+        Map<String, Long> after = snapshot(outputDir);
+        int outputFiles = 0;
+        long bytesOut = 0;
+        for (Map.Entry<String, Long> entry : after.entrySet()) {
+            String key = entry.getKey();
+            File f = new File(key.substring(0, key.lastIndexOf('|')));
+            if (!entry.getValue().equals(before.get(key))) {
+                outputFiles++;
+                bytesOut += f.length();
+            }
+        }
+
+        printSummary(out, operation, filesIn.get(), bytesIn.get(), outputFiles, bytesOut, listener.errors.get(),
+                seconds, outputDir);
+
+        if (watch && !crashed && !listener.cancelled) {
+            watchFolder(new File(paths.get(0)), watchDelaySec, settings, listener, out);
+        }
+
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ignored) {
+            // JVM sedang shutdown (Ctrl+C)
+        }
+
+        if (listener.cancelled) {
+            return EXIT_INTERRUPTED;
+        }
+        if (filesIn.get() == 0) {
+            return EXIT_USAGE; // folder tanpa PDF, sama seperti saat file dicari dulu
+        }
+        if (crashed || outputFiles == 0) {
+            return EXIT_FAILED;
+        }
+        return listener.errors.get() > 0 ? EXIT_PARTIAL : EXIT_OK;
+    }
+
+    private static void watchFolder(File folder, int delaySec, JobSettings settings, CliListener listener,
+            PrintStream out) {
+        out.println("👀 Memantau " + folder.getAbsolutePath() + " (Ctrl+C untuk berhenti)");
+        try (FolderWatcher watcher = new FolderWatcher(folder, delaySec * 1000L)) {
+            watcher.run(groups -> {
+                out.println("🔁 " + groups.size() + " grup berubah: " + String.join(", ", groups.keySet()));
+                long start = System.nanoTime();
+                try {
+                    // engine baru per perubahan: tanggal folder hasil ikut berganti setelah tengah malam
+                    new BatchEngine(settings, listener).remergeGroups(folder, groups);
+                } catch (IOException ex) {
+                    listener.error("Gabung ulang", ex, folder);
+                }
+                out.println(String.format(Locale.ROOT, "✔️ Gabung ulang selesai dalam %.1f detik",
+                        (System.nanoTime() - start) / 1e9));
+            });
+        } catch (IOException ex) {
+            listener.error("Pantau folder", ex, folder);
+        } catch (InterruptedException ex) {
+            out.println("👋 Pemantauan dihentikan.");
+        }
+    }
+
+    static BatchEngine.Operation parseOperation(String command) {
+        switch (command.toLowerCase(Locale.ROOT)) {
+            case "gabung":
+            case "merge":
+                return BatchEngine.Operation.MERGE;
+            case "split":
+                return BatchEngine.Operation.SPLIT;
+            case "kompres":
+            case "compress":
+                return BatchEngine.Operation.COMPRESS;
+            case "jpg":
+                return BatchEngine.Operation.JPG;
+            default:
+                return null;
+        }
+    }
+
+    // opsi tanpa nilai; false = bukan flag
+    static boolean applyFlag(JobSettings settings, String option) {
+        switch (option) {
+            case "--target-size":
+                settings.gsTargetSizeMode = true;
+                return true;
+            case "--target-dpi":
+                settings.gsImageDpiOverride = true;
+                return true;
+            case "--mapped":
+                settings.inputMode = PdfInput.Mode.MAPPED;
+                return true;
+            case "--scratch":
+                settings.inputScratchFile = true;
+                return true;
+            case "--no-report":
+                settings.jobReport = false;
+                return true;
+            case "--manifest":
+                settings.jobManifest = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    static void applyOption(JobSettings settings, String option, String value) {
+        switch (option) {
+            case "--out":
+                settings.outputBaseFolder = new File(value);
+                break;
+            case "--max-jpg-kb":
+                settings.maxFileSizeKb = positive(value);
+                break;
+            case "--max-pdf-kb":
+                settings.maxPdfSizeKb = positive(value);
+                break;
+            case "--gs-level":
+                if (!Arrays.asList("/screen", "/ebook", "/printer", "/prepress").contains(value)) {
+                    throw new IllegalArgumentException("Level kompresi tidak dikenal: " + value);
+                }
+                settings.gsCompressionLevel = value;
+                break;
+            case "--gs-path":
+                settings.gsPath = value;
+                break;
+            case "--gs-timeout":
+                settings.gsTimeoutSec = Integer.parseInt(value);
+                if (settings.gsTimeoutSec < 0) {
+                    throw new NumberFormatException(value);
+                }
+                break;
+            case "--engine":
+                if (!"gs".equals(value) && !"java".equals(value)) {
+                    throw new IllegalArgumentException("Mesin kompres harus gs atau java: " + value);
+                }
+                settings.compressEngine = value;
+                break;
+            case "--jpg-dpi":
+                settings.jpgDpi = positive(value);
+                break;
+            case "--jpg-mode":
+                settings.jpgColorMode = PageRenderer.ColorMode.parse(value);
+                break;
+            case "--java-dpi":
+                settings.javaCompressDpi = positive(value);
+                break;
+            case "--threads":
+                int threads = positive(value);
+                settings.mergeThreads = threads;
+                settings.renderThreads = threads;
+                settings.gsProcesses = threads;
+                break;
+            case "--split":
+                applySplitMode(settings, value);
+                break;
+            case "--archive":
+                settings.archiveFormat = ArchiveOutput.Format.parse(value);
+                break;
+            case "--merge-heap-mb":
+                settings.mergeHeapBudgetMb = Integer.parseInt(value);
+                if (settings.mergeHeapBudgetMb < 0) {
+                    throw new NumberFormatException(value);
+                }
+                break;
+            case "--depth":
+                settings.discoverDepth = Integer.parseInt(value);
+                if (settings.discoverDepth < -1) {
+                    throw new NumberFormatException(value);
+                }
+                break;
+            case "--include":
+                settings.discoverInclude = value;
+                settings.pdfDiscovery(); // pola salah → IllegalArgumentException sekarang, bukan saat mencari
+                break;
+            case "--exclude":
+                settings.discoverExclude = value;
+                settings.pdfDiscovery();
+                break;
+            case "--cache-mb":
+                settings.cacheMaxMb = Integer.parseInt(value);
+                if (settings.cacheMaxMb < 0) {
+                    throw new NumberFormatException(value);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Opsi tidak dikenal: " + option);
+        }
+    }
+
+    private static void applySplitMode(JobSettings settings, String value) {
+        int colon = value.indexOf(':');
+        String mode = colon < 0 ? value : value.substring(0, colon);
+        String arg = colon < 0 ? "" : value.substring(colon + 1).trim();
+        switch (mode) {
+            case "halaman":
+                settings.splitMode = StreamingSplitter.Mode.PER_PAGE;
+                break;
+            case "rentang":
+                StreamingSplitter.parseRanges(arg, Integer.MAX_VALUE); // validasi saja
+                settings.splitRanges = arg;
+                settings.splitMode = StreamingSplitter.Mode.RANGES;
+                break;
+            case "per":
+                settings.splitChunkPages = positive(arg);
+                settings.splitMode = StreamingSplitter.Mode.CHUNKS;
+                break;
+            case "maks-mb":
+                settings.splitMaxMb = positive(arg);
+                settings.splitMode = StreamingSplitter.Mode.MAX_SIZE;
+                break;
+            default:
+                throw new IllegalArgumentException("Mode split tidak dikenal: " + value);
+        }
+    }
+
+    private static int positive(String value) {
+        int n = Integer.parseInt(value.trim());
+        if (n < 1) {
+            throw new NumberFormatException(value);
+        }
+        return n;
+    }
+
+    // folder → PDF di dalamnya lewat PdfDiscovery (subfolder sampai --depth, filter --include/--exclude),
+    // aturan sama dengan tombol Cari Folder; null = path tidak ada
+    static List<File> collectPdfs(List<String> paths, JobSettings settings, PrintStream err) {
+        List<File> files = new ArrayList<>();
+        for (String path : paths) {
+            File f = new File(path);
+            if (f.isDirectory()) {
+                PdfDiscovery discovery = settings.pdfDiscovery();
+                try {
+                    files.addAll(discovery.find(f, found -> {
+                    }, () -> false));
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return files;
+                }
+                if (discovery.getSkippedDirs() > 0) {
+                    err.println("⚠️ " + discovery.getSkippedDirs() + " folder tidak bisa dibaca di " + path);
+                }
+            } else if (f.isFile()) {
+                if (f.getName().toLowerCase().endsWith(".pdf")) {
+                    files.add(f);
+                }
+            } else {
+                err.println("❌ File tidak ditemukan: " + path);
+                return null;
+            }
+        }
+        return files;
+    }
+
+    // path|ukuran|waktu ubah → dipakai untuk mengenali file hasil proses ini
+    private static Map<String, Long> snapshot(File dir) {
+        Map<String, Long> files = new HashMap<>();
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return files;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                files.putAll(snapshot(child));
+            } else {
+                files.put(child.getPath() + "|" + child.length(), child.lastModified());
+            }
+        }
+        return files;
+    }
+
+    private static void printSummary(PrintStream out, BatchEngine.Operation operation, int filesIn, long bytesIn,
+            int filesOut, long bytesOut, int errors, double seconds, File outputDir) {
+        double mbIn = bytesIn / (1024.0 * 1024.0);
+        double mbOut = bytesOut / (1024.0 * 1024.0);
+        double safeSeconds = Math.max(seconds, 0.001);
+        out.println("======================");
+        out.println(String.format(Locale.ROOT, "📊 %s: %d file masuk (%.1f MB) → %d file hasil (%.1f MB), %d error",
+                operation.name(), filesIn, mbIn, filesOut, mbOut, errors));
+        out.println(String.format(Locale.ROOT, "⏱ %.1f detik: %.2f file/detik, %.2f MB/detik (input)",
+                seconds, filesIn / safeSeconds, mbIn / safeSeconds));
+        out.println("📂 Output: " + outputDir.getAbsolutePath());
+    }
+
+    static PrintStream utf8(PrintStream stream) {
+        try {
+            return new PrintStream(stream, true, "UTF-8");
+        } catch (UnsupportedEncodingException ex) {
+            return stream;
+        }
+    }
+
+    private static final class CliListener implements JobListener {
+
+        private final PrintStream out;
+        private final PrintStream err;
+        private final boolean quiet;
+        final AtomicInteger errors = new AtomicInteger();
+        volatile boolean cancelled = false;
+        private int lastProgressStep = 0; // dicetak per 10%
+
+        CliListener(PrintStream out, PrintStream err, boolean quiet) {
+            this.out = out;
+            this.err = err;
+            this.quiet = quiet;
+        }
+
+        @Override
+        public void log(String message) {
+            if (!quiet) {
+                out.println(message);
+            }
+        }
+
+        @Override
+        public void error(String context, Exception ex, File file) {
+            errors.incrementAndGet();
+            err.println("❌ Error pada " + context + " → File: " + file.getName() + " → " + ex.getMessage());
+        }
+
+        @Override
+        public synchronized void progress(int percent) {
+            int step = percent / 10;
+            if (step > lastProgressStep) {
+                lastProgressStep = step;
+                if (!quiet) {
+                    out.println("… " + percent + "%");
+                }
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
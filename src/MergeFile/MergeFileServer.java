@@ -0,0 +1,688 @@
+package MergeFile;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// Layanan HTTP lokal (com.sun.net.httpserver bawaan JDK): satu proses JVM yang tetap hidup
+// menerima banyak job gabung/split/kompres/JPG, jadi tidak ada biaya start JVM + PDFBox per job.
+//
+//   POST   /jobs?op=gabung&path=/data/a.pdf&path=/data/b.pdf   file lokal di mesin server
+//   POST   /jobs?op=kompres   (Content-Type: application/pdf)  satu PDF di body
+//   POST   /jobs?op=gabung    (Content-Type: application/zip)  banyak PDF dalam ZIP
+//   GET    /jobs/{id}                                          status, progress, log, daftar hasil
+//   GET    /jobs/{id}/files/{nama}                             unduh hasil
+//   DELETE /jobs/{id}                                          batalkan job
+//   GET    /health
+//
+// Opsi per job lewat query, sama dengan opsi CLI tanpa "--" (mis. max-pdf-kb=150, split=per:2, mapped=1).
+// Job dikerjakan pool worker dengan antrian terbatas; antrian penuh → 429 + Retry-After.
+public final class MergeFileServer {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Pemakaian: MergeFileServer [opsi]",
+            "",
+            "  --port <n>               port (default 8765)",
+            "  --bind <alamat>          alamat yang didengar (default 127.0.0.1)",
+            "  --workers <n>            job yang dikerjakan bersamaan (default 2)",
+            "  --queue <n>              job yang boleh menunggu, lebih dari ini → 429 (default 16)",
+            "  --work <folder>          folder upload dan hasil job (default MergeFileServer)",
+            "  --max-upload-mb <n>      batas ukuran upload per job (default 512)",
+            "  --max-extract-mb <n>     batas total isi ZIP yang diekstrak per job (default 2048)",
+            "",
+            "Opsi proses (--max-pdf-kb, --engine, --threads, ...) sama dengan MergeFileCli dan",
+            "jadi nilai default untuk semua job.");
+
+    // opsi ini hanya boleh diatur saat server start, bukan per job dari klien
+    private static final List<String> SERVER_ONLY_OPTIONS = List.of("out", "gs-path", "cache-mb");
+    private static final int MAX_LOG_LINES = 200; // log per job yang disimpan di memori
+    private static final int MAX_FINISHED_JOBS = 500; // job selesai yang masih bisa ditanyakan statusnya
+
+    private final JobSettings defaults;
+    private final File workDir;
+    private final long maxUploadBytes;
+    private final long maxExtractBytes; // isi ZIP setelah diekstrak (ZIP kecil bisa berisi GB)
+    private final int maxJobThreads; // batas opsi threads per job dari klien
+    private final ThreadPoolExecutor jobPool;
+    private final Map<String, ServiceJob> jobs = new ConcurrentHashMap<>();
+    private final Deque<String> finishedOrder = new ArrayDeque<>();
+    private final PrintStream out;
+    private HttpServer server;
+
+    MergeFileServer(JobSettings defaults, File workDir, int workers, int queueSize, long maxUploadBytes,
+            long maxExtractBytes, PrintStream out) {
+        this.defaults = defaults;
+        this.workDir = workDir;
+        // folder output tiap job beda, jadi cache dipusatkan supaya job berikutnya bisa memakainya
+        if (defaults.cacheDir == null) {
+            defaults.cacheDir = new File(workDir, "cache");
+        }
+        this.maxUploadBytes = maxUploadBytes;
+        this.maxExtractBytes = maxExtractBytes;
+        this.maxJobThreads = Math.max(Runtime.getRuntime().availableProcessors(),
+                Math.max(defaults.mergeThreads, Math.max(defaults.renderThreads, defaults.gsProcesses)));
+        this.out = out;
+        // AbortPolicy: antrian penuh langsung ditolak (→ 429), bukan dikerjakan thread HTTP
+        this.jobPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        PrintStream out = MergeFileCli.utf8(System.out);
+        PrintStream err = MergeFileCli.utf8(System.err);
+
+        JobSettings settings = new JobSettings();
+        String bind = "127.0.0.1";
+        int port = 8765;
+        int workers = 2;
+        int queue = 16;
+        File workDir = new File("MergeFileServer");
+        long maxUploadMb = 512;
+        long maxExtractMb = 2048;
+        boolean gsPathSet = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if ("-h".equals(arg) || "--help".equals(arg)) {
+                    out.println(USAGE);
+                    return;
+                }
+                if (MergeFileCli.applyFlag(settings, arg)) {
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Opsi " + arg + " butuh nilai");
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--port":
+                        port = Integer.parseInt(value);
+                        break;
+                    case "--bind":
+                        bind = value;
+                        break;
+                    case "--workers":
+                        workers = positive(value);
+                        break;
+                    case "--queue":
+                        queue = positive(value);
+                        break;
+                    case "--work":
+                        workDir = new File(value);
+                        break;
+                    case "--max-upload-mb":
+                        maxUploadMb = positive(value);
+                        break;
+                    case "--max-extract-mb":
+                        maxExtractMb = positive(value);
+                        break;
+                    default:
+                        MergeFileCli.applyOption(settings, arg, value);
+                        gsPathSet |= "--gs-path".equals(arg);
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            err.println("❌ " + (ex instanceof NumberFormatException ? "Angka tidak valid: " : "") + ex.getMessage());
+            System.exit(MergeFileCli.EXIT_USAGE);
+            return;
+        }
+        if (!gsPathSet) {
+            settings.detectGhostscript(out::println);
+        }
+
+        MergeFileServer service = new MergeFileServer(settings, workDir, workers, queue,
+                maxUploadMb * 1024L * 1024L, maxExtractMb * 1024L * 1024L, out);
+        try {
+            service.start(new InetSocketAddress(bind, port));
+        } catch (IOException ex) {
+            err.println("❌ Server gagal start: " + ex.getMessage());
+            System.exit(MergeFileCli.EXIT_FAILED);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop));
+    }
+
+    void start(InetSocketAddress address) throws IOException {
+        workDir.mkdirs();
+        server = HttpServer.create(address, 64);
+        server.createContext("/jobs", this::handleJobs);
+        server.createContext("/health", exchange -> sendJson(exchange, 200, "{\"status\":\"ok\","
+                + "\"running\":" + jobPool.getActiveCount() + ",\"queued\":" + jobPool.getQueue().size() + "}"));
+        // thread HTTP hanya menerima upload dan menjawab status, pekerjaan berat ada di jobPool
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        out.println("🌐 MergeSplitX service di http://" + address.getHostString() + ":" + getPort()
+                + " (" + jobPool.getCorePoolSize() + " worker, antrian " + jobPool.getQueue().remainingCapacity()
+                + ")");
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    void stop() {
+        for (ServiceJob job : jobs.values()) {
+            job.cancelled = true;
+        }
+        jobPool.shutdownNow();
+        if (server != null) {
+            server.stop(1);
+            ((ExecutorService) server.getExecutor()).shutdownNow();
+        }
+    }
+
+    // ===== Routing =====
+    private void handleJobs(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String[] parts = path.replaceAll("/+$", "").split("/", 5); // "", "jobs", id, "files", nama
+            String method = exchange.getRequestMethod();
+
+            if (parts.length == 2 && "POST".equals(method)) {
+                submit(exchange);
+            } else if (parts.length == 3 && "GET".equals(method)) {
+                ServiceJob job = findJob(exchange, parts[2]);
+                if (job != null) {
+                    sendJson(exchange, 200, job.toJson());
+                }
+            } else if (parts.length == 3 && "DELETE".equals(method)) {
+                ServiceJob job = findJob(exchange, parts[2]);
+                if (job != null) {
+                    job.cancel();
+                    sendJson(exchange, 202, job.toJson());
+                }
+            } else if (parts.length == 5 && "files".equals(parts[3]) && "GET".equals(method)) {
+                ServiceJob job = findJob(exchange, parts[2]);
+                if (job != null) {
+                    sendResult(exchange, job, parts[4]);
+                }
+            } else {
+                sendError(exchange, 404, "Tidak ditemukan: " + method + " " + path);
+            }
+        } catch (IllegalArgumentException ex) {
+            sendError(exchange, 400, ex.getMessage());
+        } catch (UploadTooLargeException ex) {
+            sendError(exchange, 413, ex.getMessage());
+        } catch (Exception ex) {
+            sendError(exchange, 500, String.valueOf(ex.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private ServiceJob findJob(HttpExchange exchange, String id) throws IOException {
+        ServiceJob job = jobs.get(id);
+        if (job == null) {
+            sendError(exchange, 404, "Job tidak ditemukan: " + id);
+        }
+        return job;
+    }
+
+    // ===== Submit =====
+    private void submit(HttpExchange exchange) throws IOException {
+        Map<String, List<String>> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        BatchEngine.Operation operation = MergeFileCli.parseOperation(first(query, "op", ""));
+        if (operation == null) {
+            throw new IllegalArgumentException("Parameter op harus gabung, split, kompres atau jpg");
+        }
+
+        // cek antrian dulu supaya upload besar tidak dibaca percuma
+        if (jobPool.getQueue().remainingCapacity() == 0) {
+            sendBusy(exchange);
+            return;
+        }
+
+        JobSettings settings = defaults.copy();
+        boolean groupMode = false;
+        for (Map.Entry<String, List<String>> entry : query.entrySet()) {
+            String key = entry.getKey();
+            String value = entry.getValue().get(entry.getValue().size() - 1);
+            if ("op".equals(key) || "path".equals(key)) {
+                continue;
+            }
+            if ("group".equals(key)) {
+                groupMode = isTrue(value);
+            } else if (SERVER_ONLY_OPTIONS.contains(key)) {
+                throw new IllegalArgumentException("Opsi " + key + " hanya bisa diatur saat server start");
+            } else if (MergeFileCli.applyFlag(new JobSettings(), "--" + key)) {
+                // flag (mapped, scratch, target-size, ...): hanya dipasang kalau nilainya 1/true
+                if (isTrue(value)) {
+                    MergeFileCli.applyFlag(settings, "--" + key);
+                }
+            } else {
+                MergeFileCli.applyOption(settings, "--" + key, value);
+            }
+        }
+        // satu job tidak boleh memakai thread jauh melebihi jumlah core server
+        settings.mergeThreads = Math.min(settings.mergeThreads, maxJobThreads);
+        settings.renderThreads = Math.min(settings.renderThreads, maxJobThreads);
+        settings.gsProcesses = Math.min(settings.gsProcesses, maxJobThreads);
+
+        String id = UUID.randomUUID().toString().substring(0, 8);
+        File jobDir = new File(workDir, id);
+        settings.outputBaseFolder = new File(jobDir, "out");
+
+        List<File> files;
+        boolean folderMode;
+        List<String> paths = query.getOrDefault("path", List.of());
+        if (!paths.isEmpty()) {
+            // file lokal: aturan sama dengan CLI (satu folder → mode folder)
+            folderMode = paths.size() == 1 && new File(paths.get(0)).isDirectory();
+            files = MergeFileCli.collectPdfs(paths, settings, out);
+            if (files == null) {
+                throw new IllegalArgumentException("File tidak ditemukan");
+            }
+        } else {
+            folderMode = groupMode;
+            files = receiveUpload(exchange, new File(jobDir, "in"));
+        }
+        if (files.isEmpty()) {
+            deleteRecursively(jobDir);
+            throw new IllegalArgumentException("Tidak ada file PDF di job ini");
+        }
+        if (operation == BatchEngine.Operation.SPLIT && files.size() != 1) {
+            deleteRecursively(jobDir);
+            throw new IllegalArgumentException("Split butuh tepat satu file PDF");
+        }
+
+        ServiceJob job = new ServiceJob(id, operation, files, folderMode, settings, jobDir);
+        jobs.put(id, job);
+        try {
+            job.future = jobPool.submit(job::run);
+        } catch (RejectedExecutionException ex) {
+            // antrian terisi job lain selama upload berlangsung
+            jobs.remove(id);
+            deleteRecursively(jobDir);
+            sendBusy(exchange);
+            return;
+        }
+        out.println("📥 Job " + id + ": " + operation.name() + " " + files.size() + " file");
+        exchange.getResponseHeaders().set("Location", "/jobs/" + id);
+        sendJson(exchange, 202, job.toJson());
+    }
+
+    private List<File> receiveUpload(HttpExchange exchange, File inDir) throws IOException {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType == null) {
+            throw new IllegalArgumentException("Kirim parameter path, atau body application/pdf / application/zip");
+        }
+        inDir.mkdirs();
+        List<File> files = new ArrayList<>();
+        try (InputStream body = new LimitedInputStream(exchange.getRequestBody(), maxUploadBytes,
+                "Upload melebihi batas ukuran")) {
+            if (contentType.startsWith("application/pdf")) {
+                String name = safeName(first(parseQuery(exchange.getRequestURI().getRawQuery()), "name", "upload.pdf"));
+                File target = new File(inDir, name.toLowerCase(Locale.ROOT).endsWith(".pdf") ? name : name + ".pdf");
+                Files.copy(body, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                files.add(target);
+            } else if (contentType.startsWith("application/zip")) {
+                try (ZipInputStream zip = new ZipInputStream(body)) {
+                    // total byte hasil ekstrak semua entri, bukan ukuran ZIP-nya
+                    InputStream extracted = new LimitedInputStream(zip, maxExtractBytes,
+                            "Isi ZIP melebihi batas " + (maxExtractBytes / (1024 * 1024)) + " MB");
+                    Set<String> used = new HashSet<>();
+                    ZipEntry entry;
+                    while ((entry = zip.getNextEntry()) != null) {
+                        if (entry.isDirectory()) {
+                            continue;
+                        }
+                        // hanya nama file yang dipakai, folder di dalam ZIP diabaikan
+                        String name = safeName(entry.getName());
+                        if (!name.toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+                            continue;
+                        }
+                        name = uniqueName(name, used);
+                        File target = new File(inDir, name);
+                        Files.copy(extracted, target.toPath());
+                        files.add(target);
+                    }
+                }
+                files.sort((a, b) -> a.getName().compareTo(b.getName()));
+            } else {
+                throw new IllegalArgumentException("Content-Type tidak didukung: " + contentType);
+            }
+        } catch (IOException | RuntimeException ex) {
+            deleteRecursively(inDir.getParentFile());
+            throw ex;
+        }
+        return files;
+    }
+
+    // ===== Respon =====
+    private void sendResult(HttpExchange exchange, ServiceJob job, String name) throws IOException {
+        File outDir = job.outputDir;
+        File file = outDir == null ? null : new File(outDir, name);
+        // nama bisa berisi subfolder (JPG banyak file), tapi tidak boleh keluar dari folder hasil
+        if (file == null || !file.isFile()
+                || !file.getCanonicalPath().startsWith(outDir.getCanonicalPath() + File.separator)) {
+            sendError(exchange, 404, "Hasil tidak ditemukan: " + name);
+            return;
+        }
+        String type = name.toLowerCase(Locale.ROOT).endsWith(".jpg") ? "image/jpeg" : "application/pdf";
+        exchange.getResponseHeaders().set("Content-Type", type);
+        exchange.sendResponseHeaders(200, file.length());
+        try (OutputStream os = exchange.getResponseBody()) {
+            Files.copy(file.toPath(), os);
+        }
+    }
+
+    private void sendBusy(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Retry-After", "5");
+        sendError(exchange, 429, "Antrian penuh (" + jobPool.getQueue().size() + " job menunggu), coba lagi nanti");
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, "{\"error\":" + Json.quote(message) + "}");
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    // ===== Job =====
+    private void finished(ServiceJob job) {
+        // job selesai yang paling lama dilupakan (file di disk tetap ada)
+        synchronized (finishedOrder) {
+            finishedOrder.addLast(job.id);
+            while (finishedOrder.size() > MAX_FINISHED_JOBS) {
+                jobs.remove(finishedOrder.removeFirst());
+            }
+        }
+    }
+
+    private final class ServiceJob implements JobListener {
+
+        final String id;
+        final BatchEngine.Operation operation;
+        final List<File> files;
+        final boolean folderMode;
+        final JobSettings settings;
+        final File jobDir;
+        final long submittedMillis = System.currentTimeMillis();
+        final AtomicInteger errors = new AtomicInteger();
+        private final Deque<String> log = new ArrayDeque<>();
+
+        volatile String status = "QUEUED";
+        volatile boolean cancelled = false;
+        volatile int progress = 0;
+        volatile long startedMillis = 0;
+        volatile long finishedMillis = 0;
+        volatile File outputDir;
+        volatile Future<?> future;
+
+        ServiceJob(String id, BatchEngine.Operation operation, List<File> files, boolean folderMode,
+                JobSettings settings, File jobDir) {
+            this.id = id;
+            this.operation = operation;
+            this.files = files;
+            this.folderMode = folderMode;
+            this.settings = settings;
+            this.jobDir = jobDir;
+        }
+
+        void run() {
+            if (cancelled) {
+                return;
+            }
+            status = "RUNNING";
+            startedMillis = System.currentTimeMillis();
+            BatchEngine engine = new BatchEngine(settings, this);
+            outputDir = engine.outputDir(operation, files);
+            try {
+                engine.run(operation, files, folderMode);
+                if (cancelled) {
+                    status = "CANCELLED";
+                } else {
+                    status = listResults().isEmpty() ? "FAILED" : errors.get() > 0 ? "PARTIAL" : "DONE";
+                }
+            } catch (InterruptedException ex) {
+                status = "CANCELLED";
+            } catch (Exception ex) {
+                error(operation.name(), ex, files.get(0));
+                status = "FAILED";
+            } finally {
+                finishedMillis = System.currentTimeMillis();
+                out.println("📤 Job " + id + ": " + status + " dalam " + (finishedMillis - startedMillis) + " ms");
+                finished(this);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            Future<?> f = future;
+            if (f != null && f.cancel(true) && "QUEUED".equals(status)) {
+                // belum sempat jalan; task batal tetap di antrian sampai diambil worker, jadi
+                // dikeluarkan sekarang supaya slotnya bisa dipakai job baru (bukan 429)
+                jobPool.remove((Runnable) f);
+                status = "CANCELLED";
+                finished(this);
+            }
+        }
+
+        // nama relatif terhadap folder hasil, dipakai juga di URL unduhan
+        List<String> listResults() {
+            List<String> names = new ArrayList<>();
+            if (outputDir != null) {
+                collect(outputDir, "", names);
+            }
+            names.sort(String::compareTo);
+            return names;
+        }
+
+        private void collect(File dir, String prefix, List<String> names) {
+            File[] children = dir.listFiles();
+            if (children == null) {
+                return;
+            }
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    collect(child, prefix + child.getName() + "/", names);
+                } else {
+                    names.add(prefix + child.getName());
+                }
+            }
+        }
+
+        String toJson() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("{\"id\":").append(Json.quote(id))
+                    .append(",\"operation\":").append(Json.quote(operation.name()))
+                    .append(",\"status\":").append(Json.quote(status))
+                    .append(",\"progress\":").append(progress)
+                    .append(",\"inputFiles\":").append(files.size())
+                    .append(",\"errors\":").append(errors.get())
+                    .append(",\"queuedMs\":").append((startedMillis > 0 ? startedMillis
+                    : System.currentTimeMillis()) - submittedMillis);
+            if (startedMillis > 0) {
+                sb.append(",\"runMs\":").append((finishedMillis > 0 ? finishedMillis
+                        : System.currentTimeMillis()) - startedMillis);
+            }
+            sb.append(",\"results\":[");
+            boolean firstItem = true;
+            for (String name : listResults()) {
+                sb.append(firstItem ? "" : ",").append("{\"name\":").append(Json.quote(name))
+                        .append(",\"url\":").append(Json.quote("/jobs/" + id + "/files/" + name)).append('}');
+                firstItem = false;
+            }
+            sb.append("],\"log\":[");
+            synchronized (log) {
+                firstItem = true;
+                for (String line : log) {
+                    sb.append(firstItem ? "" : ",").append(Json.quote(line));
+                    firstItem = false;
+                }
+            }
+            return sb.append("]}").toString();
+        }
+
+        @Override
+        public void log(String message) {
+            synchronized (log) {
+                log.addLast(message);
+                while (log.size() > MAX_LOG_LINES) {
+                    log.removeFirst();
+                }
+            }
+        }
+
+        @Override
+        public void error(String context, Exception ex, File file) {
+            errors.incrementAndGet();
+            log("❌ Error pada " + context + " → File: " + file.getName() + " → " + ex.getMessage());
+        }
+
+        @Override
+        public void progress(int percent) {
+            progress = percent;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    // ===== Util =====
+    private static Map<String, List<String>> parseQuery(String rawQuery) {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "1" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+        return params;
+    }
+
+    private static String first(Map<String, List<String>> query, String key, String fallback) {
+        List<String> values = query.get(key);
+        return values == null || values.isEmpty() ? fallback : values.get(0);
+    }
+
+    private static boolean isTrue(String value) {
+        return "1".equals(value) || "true".equalsIgnoreCase(value) || "ya".equalsIgnoreCase(value);
+    }
+
+    private static int positive(String value) {
+        int n = Integer.parseInt(value.trim());
+        if (n < 1) {
+            throw new NumberFormatException(value);
+        }
+        return n;
+    }
+
+    // nama file dari klien: tanpa folder dan tanpa ".." supaya tidak bisa menulis di luar folder job
+    private static String safeName(String name) {
+        String base = name.replace('\\', '/');
+        base = base.substring(base.lastIndexOf('/') + 1).trim();
+        if (base.isEmpty() || ".".equals(base) || "..".equals(base)) {
+            throw new IllegalArgumentException("Nama file tidak valid: " + name);
+        }
+        return base;
+    }
+
+    // nama yang sama dari folder berbeda di ZIP: "a.pdf", "a (2).pdf", ... (tanpa beda huruf besar/kecil,
+    // supaya aman juga di Windows)
+    private static String uniqueName(String name, Set<String> used) {
+        String base = name.substring(0, name.length() - 4);
+        String candidate = name;
+        for (int n = 2; !used.add(candidate.toLowerCase(Locale.ROOT)); n++) {
+            candidate = base + " (" + n + ").pdf";
+        }
+        return candidate;
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static final class UploadTooLargeException extends IOException {
+
+        UploadTooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    // upload (atau isi ZIP) lebih besar dari batas → 413, job tidak dibuat
+    private static final class LimitedInputStream extends java.io.FilterInputStream {
+
+        private long remaining;
+        private final String message;
+
+        LimitedInputStream(InputStream in, long limit, String message) {
+            super(in);
+            this.remaining = limit;
+            this.message = message;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                consume(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                consume(n);
+            }
+            return n;
+        }
+
+        private void consume(long n) throws IOException {
+            remaining -= n;
+            if (remaining < 0) {
+                throw new UploadTooLargeException(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package MergeFile;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Render satu halaman untuk PDF → JPG sesuai mode warna dan DPI:
+//   RGB    : warna penuh (seperti dulu)
+//   GRAY   : abu-abu 8 bit, seperempat memori INT_RGB dan JPEG satu komponen
+//   BINARY : hitam-putih 1 bit tanpa antialias, untuk surat hasil scan; di-encode sebagai JPEG abu-abu
+//   AUTO   : halaman dirender kecil dulu (PROBE_DPI) untuk cek warna → RGB kalau berwarna, GRAY kalau tidak
+// Halaman yang terlalu besar untuk satu BufferedImage lewat TiledPageRenderer.
+// Satu instance dipakai bersama oleh semua thread render (hanya penghitung mode otomatis yang berubah).
+final class PageRenderer {
+
+    static final int DEFAULT_DPI = 300;
+
+    private static final int PROBE_DPI = 36; // A4 ±300×420 piksel
+    private static final int COLOR_CHROMA = 40; // selisih kanal max-min; di bawah ini dianggap kertas/tinta abu-abu
+    private static final double COLOR_FRACTION = 0.001; // berwarna kalau lebih dari 0,1% piksel probe
+
+    enum ColorMode {
+        RGB("rgb", ImageType.RGB), GRAY("gray", ImageType.GRAY), BINARY("bw", ImageType.BINARY), AUTO("auto", null);
+
+        final String option;
+        final ImageType imageType; // null = ditentukan per halaman
+
+        ColorMode(String option, ImageType imageType) {
+            this.option = option;
+            this.imageType = imageType;
+        }
+
+        static ColorMode parse(String text) {
+            String value = text.trim().toLowerCase();
+            for (ColorMode m : values()) {
+                if (m.option.equals(value) || m.name().toLowerCase().equals(value)) {
+                    return m;
+                }
+            }
+            throw new IllegalArgumentException("Mode warna tidak dikenal: " + text + " (rgb, gray, bw atau auto)");
+        }
+    }
+
+    private final ColorMode mode;
+    private final int dpi;
+    private final AtomicInteger autoColor = new AtomicInteger();
+    private final AtomicInteger autoGray = new AtomicInteger();
+
+    PageRenderer(ColorMode mode, int dpi) {
+        this.mode = mode;
+        this.dpi = dpi;
+    }
+
+    ColorMode getMode() {
+        return mode;
+    }
+
+    int getDpi() {
+        return dpi;
+    }
+
+    // hanya untuk mode AUTO: halaman yang ternyata berwarna / abu-abu
+    int getAutoColorPages() {
+        return autoColor.get();
+    }
+
+    int getAutoGrayPages() {
+        return autoGray.get();
+    }
+
+    Page render(PDDocument document, int pageIndex) throws IOException {
+        PDFRenderer renderer = new PDFRenderer(document);
+        ImageType type = mode.imageType;
+        if (type == null) {
+            type = hasColor(document, pageIndex) ? ImageType.RGB : ImageType.GRAY;
+            (type == ImageType.RGB ? autoColor : autoGray).incrementAndGet();
+        }
+        PDPage page = document.getPage(pageIndex);
+        if (TiledPageRenderer.isOversized(page, dpi, type)) {
+            return new Page(null, TiledPageRenderer.render(renderer, page, pageIndex, dpi, type));
+        }
+        return new Page(renderer.renderImageWithDPI(pageIndex, dpi, type), null);
+    }
+
+    // render kecil: cukup untuk melihat stempel/logo/foto berwarna, noda kuning kertas scan tidak dihitung
+    private static boolean hasColor(PDDocument document, int pageIndex) throws IOException {
+        PDFRenderer probe = new PDFRenderer(document);
+        probe.setSubsamplingAllowed(true); // gambar scan besar tidak perlu didekode penuh
+        BufferedImage image = probe.renderImageWithDPI(pageIndex, PROBE_DPI, ImageType.RGB);
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int limit = (int) Math.max(1, width * height * COLOR_FRACTION);
+        int colored = 0;
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int rgb : row) {
+                int r = (rgb >> 16) & 0xFF;
+                int g = (rgb >> 8) & 0xFF;
+                int b = rgb & 0xFF;
+                if (Math.max(r, Math.max(g, b)) - Math.min(r, Math.min(g, b)) > COLOR_CHROMA && ++colored > limit) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // hasil render satu halaman; close() menghapus file sementara halaman besar
+    static final class Page implements Closeable {
+
+        private final BufferedImage image; // halaman biasa
+        private final TiledPageRenderer.TiledPage tiled; // halaman besar, dibaca dari file sementara
+
+        private Page(BufferedImage image, TiledPageRenderer.TiledPage tiled) {
+            this.image = image;
+            this.tiled = tiled;
+        }
+
+        TiledPageRenderer.TiledPage getTiled() {
+            return tiled;
+        }
+
+        // gambar siap encode JPG. 1 bit diubah ke abu-abu 8 bit: ImageIO menulis gambar berpalet
+        // sebagai JPEG RGB, abu-abu cukup satu komponen
+        BufferedImage toJpegImage() {
+            if (tiled != null) {
+                return tiled.getImage();
+            }
+            if (image.getType() != BufferedImage.TYPE_BYTE_BINARY) {
+                return image;
+            }
+            BufferedImage gray = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D g = gray.createGraphics();
+            try {
+                g.drawImage(image, 0, 0, null);
+            } finally {
+                g.dispose();
+            }
+            return gray;
+        }
+
+        @Override
+        public void close() {
+            if (tiled != null) {
+                tiled.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package MergeFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+// Mencari file PDF di folder sumber, termasuk subfolder sampai kedalaman tertentu.
+// Tiap folder dibaca sebagai task ForkJoin sendiri, jadi di share jaringan banyak folder
+// dibaca bersamaan dan latensi per listing tidak menumpuk. File yang ditemukan langsung
+// dilaporkan lewat onFound (dari thread pencari), hasil akhir diurutkan per path. walk() tidak
+// menyimpan daftar sama sekali, untuk pemanggil yang langsung mengolah tiap file (manifest grup).
+final class PdfDiscovery {
+
+    private static final int THREADS = 8; // pekerjaan I/O, bukan CPU
+
+    private final int maxDepth; // 0 = hanya folder itu, -1 = tanpa batas
+    private final List<PathMatcher> include;
+    private final List<PathMatcher> exclude;
+    private final String includeText;
+    private final String excludeText;
+    private final AtomicInteger skippedDirs = new AtomicInteger();
+
+    PdfDiscovery(int maxDepth, String include, String exclude) {
+        this.maxDepth = maxDepth;
+        this.includeText = include.trim();
+        this.excludeText = exclude.trim();
+        this.include = globs(includeText);
+        this.exclude = globs(excludeText);
+    }
+
+    // pola dipisah koma; pola tanpa "/" dicocokkan dengan nama file/folder, dengan "/" dengan path relatif
+    private static List<PathMatcher> globs(String patterns) {
+        List<PathMatcher> matchers = new ArrayList<>();
+        for (String pattern : patterns.split(",")) {
+            if (!pattern.trim().isEmpty()) {
+                // IllegalArgumentException kalau pola salah, ditangani pemanggil seperti opsi lain
+                matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern.trim()));
+            }
+        }
+        return matchers;
+    }
+
+    List<File> find(File root, Consumer<File> onFound, BooleanSupplier cancelled) throws InterruptedException {
+        Queue<File> found = new ConcurrentLinkedQueue<>();
+        walk(root, file -> {
+            found.add(file);
+            onFound.accept(file);
+        }, cancelled);
+        List<File> files = new ArrayList<>(found);
+        files.sort(null);
+        return files;
+    }
+
+    // onFound dipanggil dari beberapa thread pencari sekaligus, urutannya tidak tentu;
+    // RuntimeException dari onFound menghentikan pencarian dan dilempar ulang apa adanya
+    void walk(File root, Consumer<File> onFound, BooleanSupplier cancelled) throws InterruptedException {
+        Path rootPath = root.toPath();
+        ForkJoinPool pool = new ForkJoinPool(THREADS);
+        try {
+            Future<?> walk = pool.submit(new DirTask(rootPath, rootPath, 0, onFound, cancelled));
+            walk.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // folder yang tidak bisa dibaca (izin, share putus) dilewati
+    int getSkippedDirs() {
+        return skippedDirs.get();
+    }
+
+    String describe() {
+        return "kedalaman " + (maxDepth < 0 ? "tanpa batas" : maxDepth == 0 ? "hanya folder itu" : maxDepth + " subfolder")
+                + (includeText.isEmpty() ? "" : ", hanya " + includeText)
+                + (excludeText.isEmpty() ? "" : ", kecuali " + excludeText);
+    }
+
+    private static boolean matches(List<PathMatcher> matchers, Path name, Path relative) {
+        for (PathMatcher m : matchers) {
+            if (m.matches(name) || m.matches(relative)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class DirTask extends RecursiveAction {
+
+        private final Path root;
+        private final Path dir;
+        private final int depth;
+        private final Consumer<File> onFound;
+        private final BooleanSupplier cancelled;
+
+        DirTask(Path root, Path dir, int depth, Consumer<File> onFound, BooleanSupplier cancelled) {
+            this.root = root;
+            this.dir = dir;
+            this.depth = depth;
+            this.onFound = onFound;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled.getAsBoolean()) {
+                return;
+            }
+            List<DirTask> subdirs = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path path : stream) {
+                    Path name = path.getFileName();
+                    Path relative = root.relativize(path);
+                    // link folder tidak diikuti supaya tidak berputar-putar
+                    if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                        if ((maxDepth < 0 || depth < maxDepth) && !matches(exclude, name, relative)) {
+                            subdirs.add(new DirTask(root, path, depth + 1, onFound, cancelled));
+                        }
+                    } else if (name.toString().toLowerCase().endsWith(".pdf")
+                            && (include.isEmpty() || matches(include, name, relative))
+                            && !matches(exclude, name, relative)) {
+                        onFound.accept(path.toFile());
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException ex) {
+                skippedDirs.incrementAndGet();
+            }
+            invokeAll(subdirs);
+        }
+    }
+}
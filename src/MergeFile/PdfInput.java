@@ -0,0 +1,312 @@
+package MergeFile;
+
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessBufferedFileInputStream;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.ScratchFile;
+import org.apache.pdfbox.pdfparser.PDFParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.function.BooleanSupplier;
+
+// Lapisan input bersama untuk split, PDF → JPG, sumber gabung dan kompres Java.
+// BUFFERED = pembaca file bawaan PDFBox (halaman 4 KB di-cache),
+// MAPPED   = file di-memory-map, halaman dibaca langsung dari page cache OS tanpa salinan di heap.
+// Scratch file: data stream hasil parsing disimpan di file sementara, bukan di heap.
+final class PdfInput {
+
+    enum Mode {
+        BUFFERED, MAPPED
+    }
+
+    private final Mode mode;
+    private final boolean scratchFile;
+
+    PdfInput(Mode mode, boolean scratchFile) {
+        this.mode = mode;
+        this.scratchFile = scratchFile;
+    }
+
+    PDDocument open(File file) throws IOException {
+        return open(file, null);
+    }
+
+    // memSetting != null menimpa pengaturan scratch (mis. budget gabung yang sudah dibagi)
+    PDDocument open(File file, MemoryUsageSetting memSetting) throws IOException {
+        return open(file, memSetting, null);
+    }
+
+    // cancelled != null: parsing dan pembacaan objek berikutnya (PDFBox membaca objek sumber
+    // saat dibutuhkan, mis. waktu halaman diimpor) melempar CancelledException setelah job dibatalkan
+    PDDocument open(File file, MemoryUsageSetting memSetting, BooleanSupplier cancelled) throws IOException {
+        MemoryUsageSetting setting = memSetting != null ? memSetting
+                : scratchFile ? MemoryUsageSetting.setupTempFileOnly() : MemoryUsageSetting.setupMainMemoryOnly();
+
+        RandomAccessRead source = mode == Mode.MAPPED
+                ? new MappedRandomAccessRead(file)
+                : new RandomAccessBufferedFileInputStream(file);
+        if (cancelled != null) {
+            source = new CancellableRead(source, cancelled);
+        }
+        ScratchFile scratch = null;
+        try {
+            scratch = new ScratchFile(setting);
+            PDFParser parser = new PDFParser(source, "", null, null, scratch);
+            parser.parse();
+            // source dan scratch ikut ditutup saat PDDocument ditutup
+            return parser.getPDDocument();
+        } catch (IOException | RuntimeException ex) {
+            IOUtils.closeQuietly(scratch);
+            IOUtils.closeQuietly(source);
+            throw ex;
+        }
+    }
+
+    String describe() {
+        return (mode == Mode.MAPPED ? "memory-mapped" : "buffered") + (scratchFile ? " + scratch file" : "");
+    }
+
+    // Meneruskan semua ke pembaca asli, dengan cek batal per blok / tiap 64K byte yang dibaca satu-satu.
+    static final class CancellableRead implements RandomAccessRead {
+
+        private final RandomAccessRead in;
+        private final BooleanSupplier cancelled;
+        private int singleReads = 0;
+
+        CancellableRead(RandomAccessRead in, BooleanSupplier cancelled) {
+            this.in = in;
+            this.cancelled = cancelled;
+        }
+
+        private void check() throws IOException {
+            if (cancelled.getAsBoolean()) {
+                throw new CancelledException();
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if ((++singleReads & 0xFFFF) == 0) {
+                check();
+            }
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b) throws IOException {
+            check();
+            return in.read(b);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            check();
+            return in.read(b, off, len);
+        }
+
+        @Override
+        public long getPosition() throws IOException {
+            return in.getPosition();
+        }
+
+        @Override
+        public void seek(long position) throws IOException {
+            check();
+            in.seek(position);
+        }
+
+        @Override
+        public long length() throws IOException {
+            return in.length();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return in.isClosed();
+        }
+
+        @Override
+        public int peek() throws IOException {
+            return in.peek();
+        }
+
+        @Override
+        public void rewind(int bytes) throws IOException {
+            in.rewind(bytes);
+        }
+
+        @Override
+        public byte[] readFully(int length) throws IOException {
+            check();
+            return in.readFully(length);
+        }
+
+        @Override
+        public boolean isEOF() throws IOException {
+            return in.isEOF();
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // RandomAccessRead di atas MappedByteBuffer. File > 2 GB dipetakan per segmen 1 GB.
+    // Catatan: mapping baru dilepas oleh GC, jadi di Windows file sumber bisa terkunci sebentar.
+    static final class MappedRandomAccessRead implements RandomAccessRead {
+
+        private static final int SEGMENT_BITS = 30; // 1 GB per segmen
+        private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+
+        private final MappedByteBuffer[] segments;
+        private final long length;
+        private long position = 0;
+        private boolean closed = false;
+
+        MappedRandomAccessRead(File file) throws IOException {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                    FileChannel channel = raf.getChannel()) {
+                length = channel.size();
+                int count = (int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+                segments = new MappedByteBuffer[count];
+                for (int i = 0; i < count; i++) {
+                    long start = i * SEGMENT_SIZE;
+                    segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, length - start));
+                }
+            }
+        }
+
+        private void checkClosed() throws IOException {
+            if (closed) {
+                throw new IOException("RandomAccessRead sudah ditutup");
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkClosed();
+            if (position >= length) {
+                return -1;
+            }
+            int b = segments[(int) (position >>> SEGMENT_BITS)].get((int) (position & (SEGMENT_SIZE - 1))) & 0xff;
+            position++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b) throws IOException {
+            return read(b, 0, b.length);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkClosed();
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= length) {
+                return -1;
+            }
+            int total = 0;
+            while (len > 0 && position < length) {
+                MappedByteBuffer segment = segments[(int) (position >>> SEGMENT_BITS)];
+                int offsetInSegment = (int) (position & (SEGMENT_SIZE - 1));
+                int n = (int) Math.min(len, Math.min(segment.capacity() - offsetInSegment, length - position));
+                // duplicate(): posisi buffer tidak dibagi antar pembaca
+                ByteBuffer view = segment.duplicate();
+                view.position(offsetInSegment);
+                view.get(b, off, n);
+                position += n;
+                off += n;
+                len -= n;
+                total += n;
+            }
+            return total;
+        }
+
+        @Override
+        public long getPosition() throws IOException {
+            checkClosed();
+            return position;
+        }
+
+        @Override
+        public void seek(long newPosition) throws IOException {
+            checkClosed();
+            if (newPosition < 0) {
+                throw new IOException("Posisi tidak valid: " + newPosition);
+            }
+            position = Math.min(newPosition, length);
+        }
+
+        @Override
+        public long length() throws IOException {
+            checkClosed();
+            return length;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public int peek() throws IOException {
+            int b = read();
+            if (b != -1) {
+                rewind(1);
+            }
+            return b;
+        }
+
+        @Override
+        public void rewind(int bytes) throws IOException {
+            checkClosed();
+            seek(position - bytes);
+        }
+
+        @Override
+        public byte[] readFully(int len) throws IOException {
+            byte[] b = new byte[len];
+            int read = 0;
+            while (read < len) {
+                int n = read(b, read, len - read);
+                if (n < 0) {
+                    throw new EOFException();
+                }
+                read += n;
+            }
+            return b;
+        }
+
+        @Override
+        public boolean isEOF() throws IOException {
+            return peek() == -1;
+        }
+
+        @Override
+        public int available() throws IOException {
+            checkClosed();
+            return (int) Math.min(length - position, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package MergeFile;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Gabung beberapa PDF jadi satu. Sama seperti PDFMergerUtility.mergeDocuments (mode legacy),
+// tapi sumber dibuka lewat PdfInput dan file yang rusak cukup dilewati, tidak menggagalkan grup.
+// Batal dicek juga di dalam parsing/impor sumber dan saat menyimpan; hasil ditulis lewat PdfOutput
+// (file sementara lalu dipindah), jadi pembatalan tidak pernah meninggalkan PDF setengah jadi.
+final class PdfMerger {
+
+    private static final String CONTEXT = "Gabung PDF";
+
+    private final PdfInput input;
+    private final JobMetrics metrics;
+    private final JobListener listener;
+
+    PdfMerger(PdfInput input, JobMetrics metrics, JobListener listener) {
+        this.input = input;
+        this.metrics = metrics;
+        this.listener = listener;
+    }
+
+    // memSetting null = semua di heap; hasil false kalau dibatalkan atau tidak ada sumber yang terbaca.
+    // reportProgress: progress per sumber (gabung satu file), bukan per grup
+    boolean merge(List<File> sources, File outputFile, MemoryUsageSetting memSetting, boolean reportProgress)
+            throws IOException {
+        // budget dibagi antara dokumen tujuan dan tiap sumber, seperti PDFBox
+        MemoryUsageSetting partitioned = memSetting != null
+                ? memSetting.getPartitionedCopy(sources.size() + 1) : null;
+
+        PDFMergerUtility merger = new PDFMergerUtility();
+        // sumber harus tetap terbuka sampai tujuan selesai disimpan
+        List<PDDocument> opened = new ArrayList<>();
+        // untuk manifest: sumber yang berhasil masuk, halaman dan lama prosesnya
+        List<File> merged = new ArrayList<>();
+        List<long[]> mergedStats = new ArrayList<>();
+        try (PDDocument destination = partitioned != null ? new PDDocument(partitioned) : new PDDocument()) {
+            int count = 0;
+            for (File f : sources) {
+                if (listener.isCancelled()) {
+                    return false;
+                }
+                try {
+                    long started = System.nanoTime();
+                    PDDocument source;
+                    JobMetrics.Span parseSpan = metrics.span("parse", f);
+                    try {
+                        source = input.open(f, partitioned, listener::isCancelled);
+                    } finally {
+                        parseSpan.end();
+                    }
+                    opened.add(source);
+                    metrics.input(f);
+                    metrics.pages(source.getNumberOfPages());
+                    JobMetrics.Span importSpan = metrics.span("import", f);
+                    try {
+                        merger.appendDocument(destination, source);
+                    } finally {
+                        importSpan.end();
+                    }
+                    merged.add(f);
+                    mergedStats.add(new long[]{source.getNumberOfPages(), System.nanoTime() - started});
+                    listener.log("Menggabungkan: " + f.getName());
+                } catch (CancelledException ex) {
+                    return false;
+                } catch (IOException ex) {
+                    listener.error(CONTEXT, ex, f);
+                }
+                count++;
+                if (reportProgress) {
+                    listener.progress((int) ((count * 100.0f) / sources.size()));
+                }
+            }
+            if (opened.isEmpty() || listener.isCancelled()) {
+                return false;
+            }
+            JobMetrics.Span saveSpan = metrics.span("save", outputFile);
+            try {
+                PdfOutput.save(destination, outputFile, listener::isCancelled);
+            } catch (CancelledException ex) {
+                return false;
+            } finally {
+                saveSpan.end();
+            }
+            metrics.output(outputFile);
+            for (int i = 0; i < merged.size(); i++) {
+                metrics.done(merged.get(i), outputFile.getPath(), (int) mergedStats.get(i)[0], outputFile.length(),
+                        mergedStats.get(i)[1]);
+            }
+            return true;
+        } finally {
+            for (PDDocument doc : opened) {
+                try {
+                    doc.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package MergeFile;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.function.BooleanSupplier;
+
+// Simpan PDF ke file sementara di folder yang sama lalu pindahkan ke nama akhir.
+// Dibatalkan atau gagal di tengah → file sementara dihapus, hasil lama (kalau ada) tetap utuh.
+// Karena file akhir selalu inode baru, hard link di cache hasil juga tidak ikut tertimpa.
+final class PdfOutput {
+
+    private PdfOutput() {
+    }
+
+    static void save(PDDocument document, File target, BooleanSupplier cancelled) throws IOException {
+        File dir = target.getAbsoluteFile().getParentFile();
+        File tmp = File.createTempFile("." + target.getName() + "-", ".part", dir);
+        boolean done = false;
+        try {
+            try (OutputStream out = new BufferedOutputStream(
+                    new CancellableOutputStream(new FileOutputStream(tmp), cancelled), 1 << 16)) {
+                document.save(out);
+            }
+            if (cancelled.getAsBoolean()) {
+                throw new CancelledException();
+            }
+            moveIntoPlace(tmp, target);
+            done = true;
+        } finally {
+            if (!done) {
+                tmp.delete();
+            }
+        }
+    }
+
+    // file sementara → nama akhir, atomik kalau sistem file mendukung
+    static void moveIntoPlace(File tmp, File target) throws IOException {
+        try {
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // cek batal tiap blok yang ditulis (BufferedOutputStream di depannya → per 64 KB)
+    private static final class CancellableOutputStream extends FilterOutputStream {
+
+        private final BooleanSupplier cancelled;
+
+        CancellableOutputStream(OutputStream out, BooleanSupplier cancelled) {
+            super(out);
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (cancelled.getAsBoolean()) {
+                throw new CancelledException();
+            }
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (cancelled.getAsBoolean()) {
+                throw new CancelledException();
+            }
+            out.write(b, off, len);
+        }
+    }
+}
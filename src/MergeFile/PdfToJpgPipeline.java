@@ -0,0 +1,469 @@
+package MergeFile;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// PDF → JPG untuk banyak file sekaligus, dibagi 3 tahap dengan antrian terbatas:
+// render (N thread) → encode JPG (N thread) → tulis ke disk (1 thread).
+// Render halaman berikutnya jalan bersamaan dengan encode/tulis halaman sebelumnya.
+final class PdfToJpgPipeline {
+
+    private static final String CONTEXT = "Convert PDF → JPG";
+
+    // penanda akhir antrian
+    private static final RenderedPage END_RENDER = new RenderedPage(null, -1, null);
+    private static final EncodedPage END_ENCODE = new EncodedPage(null, -1, null);
+
+    private final List<File> files;
+    private final File outputDir;
+    private final ArchiveOutput archive; // null = JPG ditulis sebagai file di outputDir
+    private final Map<File, String> subfolders; // null = semua JPG langsung di outputDir
+    private final int threads;
+    private final int maxFileSizeKb;
+    private final PageRenderer renderer; // mode warna + DPI
+    private final PdfInput input;
+    private final JobMetrics metrics;
+    private final JobListener listener;
+
+    // gambar hasil render besar, jadi antrian render dibuat kecil
+    private final BlockingQueue<RenderedPage> renderQueue;
+    private final BlockingQueue<EncodedPage> writeQueue;
+    private final PageCursor cursor = new PageCursor();
+    private final List<JpegSizeEncoder> encoders = Collections.synchronizedList(new ArrayList<>());
+
+    private final AtomicInteger filesDone = new AtomicInteger();
+    private final Map<File, List<File>> outputs = new HashMap<>(); // hanya diubah oleh thread tulis
+    private int pagesWritten = 0; // hanya diubah oleh thread tulis
+    private int lastProgress = 0;
+
+    PdfToJpgPipeline(List<File> files, File outputDir, ArchiveOutput archive, Map<File, String> subfolders, int threads,
+            int maxFileSizeKb, PageRenderer renderer, PdfInput input, JobMetrics metrics, JobListener listener) {
+        this.files = files;
+        this.outputDir = outputDir;
+        this.archive = archive;
+        this.subfolders = subfolders;
+        this.threads = Math.max(1, threads);
+        this.maxFileSizeKb = maxFileSizeKb;
+        this.renderer = renderer;
+        this.input = input;
+        this.metrics = metrics;
+        this.listener = listener;
+        this.renderQueue = new ArrayBlockingQueue<>(this.threads * 2);
+        this.writeQueue = new ArrayBlockingQueue<>(64);
+    }
+
+    static String baseName(File pdfFile) {
+        return pdfFile.getName().replaceFirst("[.][^.]+$", "");
+    }
+
+    void run() throws InterruptedException {
+        listener.log("⚙️ Pipeline JPG: " + files.size() + " file, " + renderer.getDpi() + " DPI, mode "
+                + renderer.getMode().option + ", " + threads + " thread render, "
+                + threads + " thread encode, 1 thread tulis"
+                + (archive != null ? " ke " + archive.getTarget().getName() : ""));
+
+        ExecutorService renderPool = Executors.newFixedThreadPool(threads);
+        ExecutorService encodePool = Executors.newFixedThreadPool(threads);
+        ExecutorService writePool = Executors.newSingleThreadExecutor();
+        try {
+            List<Future<?>> renderers = new ArrayList<>();
+            List<Future<?>> encoderTasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                renderers.add(renderPool.submit(() -> {
+                    renderLoop();
+                    return null;
+                }));
+                encoderTasks.add(encodePool.submit(() -> {
+                    encodeLoop();
+                    return null;
+                }));
+            }
+            Future<?> writer = writePool.submit(() -> {
+                writeLoop();
+                return null;
+            });
+
+            // tutup tiap tahap berurutan supaya antrian terkuras habis
+            await(renderers);
+            for (int t = 0; t < threads; t++) {
+                renderQueue.put(END_RENDER);
+            }
+            await(encoderTasks);
+            writeQueue.put(END_ENCODE);
+            await(Collections.singletonList(writer));
+        } finally {
+            renderPool.shutdownNow();
+            encodePool.shutdownNow();
+            writePool.shutdownNow();
+            // halaman yang tertinggal di antrian (dihentikan paksa) jangan meninggalkan file sementara
+            RenderedPage left;
+            while ((left = renderQueue.poll()) != null) {
+                left.release();
+            }
+        }
+
+        long encodes = 0;
+        long images = 0;
+        synchronized (encoders) {
+            for (JpegSizeEncoder enc : encoders) {
+                encodes += enc.getEncodeCount();
+                images += enc.getImageCount();
+            }
+        }
+        listener.log("📄 Total JPG dibuat: " + pagesWritten + " halaman dari " + filesDone.get() + " file");
+        if (images > 0) {
+            listener.log(String.format("📊 Rata-rata encode JPG per halaman: %.2f", (double) encodes / images));
+        }
+        if (renderer.getMode() == PageRenderer.ColorMode.AUTO) {
+            listener.log("🎨 Mode otomatis: " + renderer.getAutoGrayPages() + " halaman abu-abu, "
+                    + renderer.getAutoColorPages() + " halaman berwarna");
+        }
+    }
+
+    // JPG yang benar-benar ditulis untuk satu sumber (mode folder), dibaca setelah run() selesai
+    List<File> outputsOf(File source) {
+        return outputs.getOrDefault(source, Collections.emptyList());
+    }
+
+    private void await(List<Future<?>> futures) throws InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException ex) {
+                listener.log("❌ Error convert: " + ex.getCause().getMessage());
+            }
+        }
+    }
+
+    // ===== Tahap 1: render =====
+    private void renderLoop() throws InterruptedException {
+        // PDDocument tidak thread-safe, jadi tiap thread render buka dokumen sendiri
+        Map<SourceState, PDDocument> openDocs = new HashMap<>();
+        try {
+            PageTask task;
+            while (!listener.isCancelled() && (task = cursor.next()) != null) {
+                SourceState source = task.source;
+                PDDocument document = openDocs.get(source);
+                try {
+                    if (document == null) {
+                        JobMetrics.Span parseSpan = metrics.span("parse", source.file);
+                        try {
+                            document = input.open(source.file);
+                        } finally {
+                            parseSpan.end();
+                        }
+                        openDocs.put(source, document);
+                    }
+                    if (task.page == 0) {
+                        metrics.input(source.file);
+                        int pageCount = document.getNumberOfPages();
+                        cursor.setPageCount(source, pageCount);
+                        if (pageCount == 0) {
+                            fileFinished(source);
+                            continue;
+                        }
+                    }
+
+                    PageRenderer.Page rendered;
+                    JobMetrics.Span renderSpan = metrics.span("render", source.file);
+                    try {
+                        rendered = renderer.render(document, task.page);
+                    } finally {
+                        renderSpan.end();
+                    }
+                    TiledPageRenderer.TiledPage tiled = rendered.getTiled();
+                    if (tiled != null) {
+                        // halaman besar: per strip ke file sementara, bukan satu gambar raksasa
+                        BufferedImage view = tiled.getImage();
+                        listener.log("🧩 Halaman besar " + source.file.getName() + " hal. " + (task.page + 1) + ": "
+                                + view.getWidth() + "×" + view.getHeight() + " px, dirender " + tiled.getStripCount()
+                                + " strip" + (tiled.getDpi() < renderer.getDpi()
+                                ? String.format(" (%.0f DPI)", tiled.getDpi()) : ""));
+                    }
+                    try {
+                        renderQueue.put(new RenderedPage(source, task.page, rendered));
+                    } catch (InterruptedException ex) {
+                        rendered.close();
+                        throw ex;
+                    }
+                } catch (InterruptedException ex) {
+                    throw ex;
+                } catch (Exception ex) {
+                    listener.error(CONTEXT, ex, source.file);
+                    if (task.page == 0 && source.pageCount < 0) {
+                        // file gagal dibuka: tidak ada halaman yang bisa diproses
+                        cursor.setPageCount(source, 0);
+                        fileFinished(source);
+                    } else {
+                        pageFinished(source);
+                    }
+                }
+                closeClaimedDocuments(openDocs, source);
+            }
+        } finally {
+            for (PDDocument doc : openDocs.values()) {
+                closeQuietly(doc);
+            }
+        }
+    }
+
+    // dokumen yang semua halamannya sudah diambil thread lain tidak perlu dibuka terus
+    private void closeClaimedDocuments(Map<SourceState, PDDocument> openDocs, SourceState current) {
+        Iterator<Map.Entry<SourceState, PDDocument>> it = openDocs.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<SourceState, PDDocument> entry = it.next();
+            if (entry.getKey() != current && cursor.isFullyClaimed(entry.getKey())) {
+                closeQuietly(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    // ===== Tahap 2: encode JPG =====
+    private void encodeLoop() throws InterruptedException {
+        // writer dan buffer JPG dipakai ulang antar halaman di thread ini
+        JpegSizeEncoder encoder = new JpegSizeEncoder(maxFileSizeKb);
+        encoders.add(encoder);
+        try {
+            while (true) {
+                RenderedPage page = renderQueue.take();
+                if (page == END_RENDER) {
+                    break;
+                }
+                try {
+                    byte[] jpg;
+                    JobMetrics.Span encodeSpan = metrics.span("encode", page.source.file);
+                    try {
+                        jpg = encoder.encode(page.image.toJpegImage());
+                    } finally {
+                        encodeSpan.end();
+                        page.release();
+                    }
+                    writeQueue.put(new EncodedPage(page.source, page.page, jpg));
+                } catch (InterruptedException ex) {
+                    throw ex;
+                } catch (Exception ex) {
+                    listener.error(CONTEXT, ex, page.source.file);
+                    pageFinished(page.source);
+                }
+            }
+        } finally {
+            encoder.close();
+        }
+    }
+
+    // ===== Tahap 3: tulis ke disk / arsip =====
+    private void writeLoop() throws InterruptedException {
+        while (true) {
+            EncodedPage page = writeQueue.take();
+            if (page == END_ENCODE) {
+                break;
+            }
+            String name = page.source.outputFileName(page.page);
+            JobMetrics.Span writeSpan = metrics.span("write", page.source.file);
+            try {
+                if (archive != null) {
+                    // susunan entri sama dengan susunan folder: banyak file → <nama>/<nama><n>.jpg
+                    archive.addStored(page.source.subfolder != null ? page.source.subfolder + "/" + name : name,
+                            page.jpg);
+                } else {
+                    // folder dibuat saat JPG pertama siap, file yang gagal dibuka tidak meninggalkan folder kosong
+                    if (!page.source.outputDirReady) {
+                        page.source.outputDir.mkdirs();
+                        page.source.outputDirReady = true;
+                    }
+                    // hapus dulu: file lama bisa hardlink ke isi cache
+                    File target = new File(page.source.outputDir, name);
+                    target.delete();
+                    try (FileOutputStream fos = new FileOutputStream(target)) {
+                        fos.write(page.jpg);
+                    }
+                    outputs.computeIfAbsent(page.source.file, f -> new ArrayList<>()).add(target);
+                }
+                pagesWritten++;
+                page.source.written.incrementAndGet();
+                page.source.writtenBytes.addAndGet(page.jpg.length);
+                metrics.pages(1);
+                metrics.output(page.jpg.length);
+                listener.log("Membuat JPG: " + name);
+            } catch (Exception ex) {
+                listener.error(CONTEXT, ex, page.source.file);
+            } finally {
+                writeSpan.end();
+            }
+            pageFinished(page.source);
+        }
+    }
+
+    // ===== Progress =====
+    private void pageFinished(SourceState source) {
+        if (source.processed.incrementAndGet() == source.pageCount) {
+            fileFinished(source);
+        } else if (files.size() == 1) {
+            updateProgress((int) ((source.processed.get() * 100.0f) / source.pageCount));
+        }
+    }
+
+    private void fileFinished(SourceState source) {
+        if (source.written.get() > 0) {
+            // satu baris manifest per PDF: semua JPG-nya sebagai pola nama
+            String jpgs = (source.pageCount == 1 ? source.baseName : source.baseName + "*") + ".jpg";
+            String folder = source.subfolder != null ? source.subfolder + "/" : "";
+            String output = archive != null
+                    ? archive.getTarget().getPath() + "!/" + folder + jpgs
+                    : new File(source.outputDir, jpgs).getPath();
+            metrics.done(source.file, output, source.written.get(), source.writtenBytes.get(),
+                    System.nanoTime() - source.started);
+        }
+        int done = filesDone.incrementAndGet();
+        updateProgress((int) ((done * 100.0f) / files.size()));
+    }
+
+    // progress hanya boleh naik walau tahap selesai tidak berurutan
+    private synchronized void updateProgress(int progress) {
+        if (progress > lastProgress) {
+            lastProgress = progress;
+            listener.progress(progress);
+        }
+    }
+
+    private static void closeQuietly(PDDocument doc) {
+        try {
+            doc.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    // Membagi (file, halaman) ke thread render. Jumlah halaman baru diketahui setelah
+    // file dibuka, jadi selama itu thread lain boleh lanjut ke file berikutnya.
+    private final class PageCursor {
+
+        private int nextFile = 0;
+        private final List<SourceState> active = new ArrayList<>();
+
+        synchronized PageTask next() throws InterruptedException {
+            while (true) {
+                Iterator<SourceState> it = active.iterator();
+                while (it.hasNext()) {
+                    SourceState source = it.next();
+                    if (source.pageCount >= 0) {
+                        if (source.nextPage < source.pageCount) {
+                            return new PageTask(source, source.nextPage++);
+                        }
+                        it.remove();
+                    }
+                }
+                if (nextFile < files.size()) {
+                    SourceState source = new SourceState(files.get(nextFile++));
+                    source.nextPage = 1; // halaman pertama langsung diambil pemanggil
+                    active.add(source);
+                    return new PageTask(source, 0);
+                }
+                if (active.isEmpty()) {
+                    return null;
+                }
+                wait(); // tunggu jumlah halaman dari file yang sedang dibuka
+            }
+        }
+
+        synchronized void setPageCount(SourceState source, int pageCount) {
+            source.pageCount = pageCount;
+            notifyAll();
+        }
+
+        synchronized boolean isFullyClaimed(SourceState source) {
+            return source.pageCount >= 0 && source.nextPage >= source.pageCount;
+        }
+    }
+
+    private final class SourceState {
+
+        final File file;
+        final File outputDir;
+        final String baseName;
+        final String subfolder; // null = tanpa subfolder
+        volatile int pageCount = -1; // -1 = belum diketahui
+        int nextPage = 0; // dijaga oleh PageCursor
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger written = new AtomicInteger();
+        final AtomicLong writtenBytes = new AtomicLong();
+        final long started = System.nanoTime();
+        boolean outputDirReady = false; // hanya dipakai thread tulis
+
+        SourceState(File file) {
+            this.file = file;
+            this.baseName = baseName(file);
+            this.subfolder = subfolders != null ? subfolders.get(file) : null;
+            this.outputDir = subfolder != null ? new File(PdfToJpgPipeline.this.outputDir, subfolder)
+                    : PdfToJpgPipeline.this.outputDir;
+        }
+
+        String outputFileName(int page) {
+            if (pageCount == 1) {
+                return baseName + ".jpg";
+            }
+            return baseName + (page + 1) + ".jpg";
+        }
+    }
+
+    private static final class PageTask {
+
+        final SourceState source;
+        final int page;
+
+        PageTask(SourceState source, int page) {
+            this.source = source;
+            this.page = page;
+        }
+    }
+
+    private static final class RenderedPage {
+
+        final SourceState source;
+        final int page;
+        final PageRenderer.Page image;
+
+        RenderedPage(SourceState source, int page, PageRenderer.Page image) {
+            this.source = source;
+            this.page = page;
+            this.image = image;
+        }
+
+        void release() {
+            if (image != null) {
+                image.close();
+            }
+        }
+    }
+
+    private static final class EncodedPage {
+
+        final SourceState source;
+        final int page;
+        final byte[] jpg;
+
+        EncodedPage(SourceState source, int page, byte[] jpg) {
+            this.source = source;
+            this.page = page;
+            this.jpg = jpg;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package MergeFile;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cache hasil proses di disk. Kunci = SHA-256 dari isi file input + pengaturan yang memengaruhi hasil,
+// jadi folder yang diproses ulang tiap hari tidak perlu digabung/di-render/dikompres lagi kalau isinya sama.
+// Hasil disimpan sebagai hard link (tidak makan ruang tambahan selama file output masih ada),
+// dipulihkan juga lewat hard link; kalau beda partisi/tidak didukung, disalin biasa.
+// Ukuran dibatasi: entri yang paling lama tidak dipakai dihapus dulu (LRU, dari waktu ubah folder entri).
+final class ResultCache {
+
+    private static final String FORMAT = "v1"; // naikkan kalau format hasil berubah supaya cache lama tidak dipakai
+    private static final String HASH_FILE = "hashes.tsv";
+    private static final int MAX_HASH_ENTRIES = 100_000;
+
+    // satu instance per folder cache supaya job yang jalan bersamaan memakai index yang sama
+    private static final Map<String, ResultCache> INSTANCES = new ConcurrentHashMap<>();
+
+    private final File dir;
+    private volatile long maxBytes;
+    // hash isi file dipakai ulang selama path, ukuran dan waktu ubah sama
+    private final Map<String, String> hashMemo = new ConcurrentHashMap<>();
+    private boolean hashMemoDirty = false;
+    private Map<String, long[]> index; // kunci → {ukuran byte, terakhir dipakai}, dimuat saat pertama dipakai
+
+    private ResultCache(File dir) {
+        this.dir = dir;
+        loadHashMemo();
+    }
+
+    static ResultCache open(File dir, long maxBytes) {
+        ResultCache cache = INSTANCES.computeIfAbsent(dir.getAbsolutePath(), k -> new ResultCache(dir));
+        cache.maxBytes = maxBytes;
+        return cache;
+    }
+
+    // ===== Kunci =====
+    String key(String operation, String settingsTag, List<File> inputs) throws IOException {
+        MessageDigest md = sha256();
+        update(md, FORMAT + "\n" + operation + "\n" + settingsTag + "\n");
+        for (File input : inputs) {
+            // nama ikut kunci karena nama file hasil diturunkan dari nama input
+            update(md, input.getName() + "\t" + contentHash(input) + "\n");
+        }
+        return hex(md.digest());
+    }
+
+    private String contentHash(File file) throws IOException {
+        String memoKey = file.getAbsolutePath() + "\t" + file.length() + "\t" + file.lastModified();
+        String cached = hashMemo.get(memoKey);
+        if (cached != null) {
+            return cached;
+        }
+        MessageDigest md = sha256();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                md.update(buffer, 0, n);
+            }
+        }
+        String hash = hex(md.digest());
+        if (hashMemo.size() < MAX_HASH_ENTRIES) {
+            hashMemo.put(memoKey, hash);
+            synchronized (this) {
+                hashMemoDirty = true;
+            }
+        }
+        return hash;
+    }
+
+    // ===== Ambil / simpan =====
+    // true = semua file hasil untuk kunci ini sudah ada di targetDir
+    boolean restore(String key, File targetDir) {
+        return restore(key, targetDir, null);
+    }
+
+    // entri berisi tepat satu file, dipulihkan dengan nama target (nama di cache bisa berbeda)
+    boolean restoreAs(String key, File target) {
+        return restore(key, target.getParentFile(), target.getName());
+    }
+
+    private boolean restore(String key, File targetDir, String rename) {
+        File entry = new File(dir, key);
+        File[] files = entry.listFiles();
+        if (files == null || files.length == 0 || (rename != null && files.length != 1)) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            targetDir.mkdirs();
+            for (File cached : files) {
+                File target = new File(targetDir, rename != null ? rename : cached.getName());
+                Files.deleteIfExists(target.toPath());
+                linkOrCopy(cached, target);
+                // hasil yang dipulihkan terlihat sebagai hasil job ini (ringkasan CLI, sinkronisasi folder)
+                target.setLastModified(now);
+            }
+        } catch (IOException ex) {
+            return false; // entri dihapus proses lain saat dipulihkan → anggap miss
+        }
+        entry.setLastModified(now);
+        synchronized (this) {
+            long[] meta = index().get(key);
+            if (meta != null) {
+                meta[1] = now;
+            }
+        }
+        return true;
+    }
+
+    void store(String key, List<File> outputs) {
+        if (maxBytes <= 0 || outputs.isEmpty()) {
+            return;
+        }
+        File entry = new File(dir, key);
+        if (entry.isDirectory()) {
+            return;
+        }
+        // ditulis ke folder sementara lalu di-rename, jadi entri yang terlihat selalu lengkap
+        File tmp = new File(dir, key + ".tmp-" + Thread.currentThread().getId());
+        long size = 0;
+        try {
+            deleteRecursively(tmp);
+            tmp.mkdirs();
+            for (File output : outputs) {
+                linkOrCopy(output, new File(tmp, output.getName()));
+                size += output.length();
+            }
+            try {
+                Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp.toPath(), entry.toPath());
+            }
+        } catch (FileAlreadyExistsException ex) {
+            deleteRecursively(tmp); // job lain menyimpan hasil yang sama lebih dulu
+            return;
+        } catch (IOException ex) {
+            deleteRecursively(tmp);
+            return;
+        }
+        synchronized (this) {
+            index().put(key, new long[]{size, System.currentTimeMillis()});
+            evict();
+        }
+    }
+
+    private static void linkOrCopy(File source, File target) throws IOException {
+        try {
+            Files.createLink(target.toPath(), source.toPath());
+        } catch (IOException | UnsupportedOperationException ex) {
+            Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // ===== Batas ukuran =====
+    private Map<String, long[]> index() {
+        if (index == null) {
+            index = new HashMap<>();
+            File[] entries = dir.listFiles(f -> f.isDirectory() && !f.getName().contains(".tmp-"));
+            if (entries != null) {
+                for (File entry : entries) {
+                    long size = 0;
+                    File[] files = entry.listFiles();
+                    if (files != null) {
+                        for (File f : files) {
+                            size += f.length();
+                        }
+                    }
+                    index.put(entry.getName(), new long[]{size, entry.lastModified()});
+                }
+            }
+        }
+        return index;
+    }
+
+    private void evict() {
+        long total = totalBytes();
+        if (total <= maxBytes) {
+            return;
+        }
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(index.entrySet());
+        entries.sort(Comparator.comparingLong(e -> e.getValue()[1]));
+        for (Map.Entry<String, long[]> e : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            deleteRecursively(new File(dir, e.getKey()));
+            index.remove(e.getKey());
+            total -= e.getValue()[0];
+        }
+    }
+
+    synchronized long totalBytes() {
+        long total = 0;
+        for (long[] meta : index().values()) {
+            total += meta[0];
+        }
+        return total;
+    }
+
+    // ===== Hash memo =====
+    private void loadHashMemo() {
+        File file = new File(dir, HASH_FILE);
+        if (!file.isFile()) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.lastIndexOf('\t');
+                if (tab > 0) {
+                    hashMemo.put(line.substring(0, tab), line.substring(tab + 1));
+                }
+            }
+        } catch (IOException ignored) {
+            // memo hanya mempercepat, boleh hilang
+        }
+    }
+
+    // dipanggil di akhir job
+    synchronized void flush() {
+        if (!hashMemoDirty) {
+            return;
+        }
+        dir.mkdirs();
+        File tmp = new File(dir, HASH_FILE + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> e : hashMemo.entrySet()) {
+                // file yang sudah tidak ada tidak perlu diingat
+                String path = e.getKey().substring(0, e.getKey().indexOf('\t'));
+                if (new File(path).exists()) {
+                    writer.write(e.getKey() + "\t" + e.getValue());
+                    writer.newLine();
+                }
+            }
+        } catch (IOException ex) {
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), new File(dir, HASH_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            hashMemoDirty = false;
+        } catch (IOException ignored) {
+        }
+    }
+
+    // ===== Statistik per job =====
+    static final class Stats {
+
+        final AtomicInteger hits = new AtomicInteger();
+        final AtomicInteger misses = new AtomicInteger();
+        final AtomicLong bytesReused = new AtomicLong();
+
+        void hit(File targetDir, List<String> names) {
+            hits.incrementAndGet();
+            for (String name : names) {
+                bytesReused.addAndGet(new File(targetDir, name).length());
+            }
+        }
+
+        String describe(ResultCache cache) {
+            return "🗃️ Cache: " + hits.get() + " hit, " + misses.get() + " miss, "
+                    + (bytesReused.get() / (1024 * 1024)) + " MB dipakai ulang, ukuran cache "
+                    + (cache.totalBytes() / (1024 * 1024)) + " / " + (cache.maxBytes / (1024 * 1024)) + " MB";
+        }
+    }
+
+    // nama file hasil di entri cache
+    List<String> names(String key) {
+        List<String> names = new ArrayList<>();
+        File[] files = new File(dir, key).listFiles();
+        if (files != null) {
+            for (File f : files) {
+                names.add(f.getName());
+            }
+        }
+        return names;
+    }
+
+    // ===== Util =====
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex); // selalu ada di JDK
+        }
+    }
+
+    private static void update(MessageDigest md, String text) {
+        md.update(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
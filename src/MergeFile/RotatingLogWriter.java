@@ -0,0 +1,153 @@
+package MergeFile;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Log lengkap ke file, ditulis oleh satu thread di belakang supaya pemanggil (thread job, EDT)
+// tidak pernah menunggu disk. File diganti kalau sudah maxBytes: nama.log → nama.log.1 → ... → nama.log.N.
+// Kalau antrian penuh (disk sangat lambat), baris baru dibuang dan jumlahnya dicatat di file.
+final class RotatingLogWriter implements AutoCloseable {
+
+    private static final int QUEUE_SIZE = 50_000;
+    private static final String STOP = new String("stop"); // penanda berhenti, dibandingkan dengan ==
+
+    private final File file;
+    private final long maxBytes;
+    private final int keepFiles;
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread thread;
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"); // hanya thread penulis
+    private BufferedWriter writer;
+    private long written;
+
+    RotatingLogWriter(File file, long maxBytes, int keepFiles) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.keepFiles = keepFiles;
+        this.thread = new Thread(this::drain, "log-file");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    // boleh dari thread mana saja, tidak pernah menunggu
+    void write(String line) {
+        if (!queue.offer(System.currentTimeMillis() + "\t" + line)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void drain() {
+        List<String> batch = new ArrayList<>(1024);
+        try {
+            while (true) {
+                String first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == STOP) {
+                    return;
+                }
+                if (first == null) {
+                    flush();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, 1023);
+                boolean stop = false;
+                for (String entry : batch) {
+                    if (entry == STOP) {
+                        stop = true;
+                        break;
+                    }
+                    int tab = entry.indexOf('\t');
+                    append(timeFormat.format(new Date(Long.parseLong(entry.substring(0, tab))))
+                            + " " + entry.substring(tab + 1));
+                }
+                batch.clear();
+                long lost = dropped.getAndSet(0);
+                if (lost > 0) {
+                    append(timeFormat.format(new Date()) + " ⚠️ " + lost + " baris log terlewat (antrian penuh)");
+                }
+                if (stop) {
+                    return;
+                }
+            }
+        } catch (InterruptedException ignored) {
+        } finally {
+            closeWriter();
+        }
+    }
+
+    private void append(String line) {
+        try {
+            if (writer == null || written >= maxBytes) {
+                rotate();
+            }
+            writer.write(line);
+            writer.newLine();
+            written += line.length() + 1; // perkiraan, cukup untuk batas rotasi
+        } catch (IOException ex) {
+            // log ke file tidak boleh menghentikan proses; coba buka ulang di baris berikutnya
+            closeWriter();
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeWriter();
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        if (file.length() >= maxBytes) {
+            new File(file.getPath() + "." + keepFiles).delete();
+            for (int i = keepFiles - 1; i >= 1; i--) {
+                new File(file.getPath() + "." + i).renameTo(new File(file.getPath() + "." + (i + 1)));
+            }
+            file.renameTo(new File(file.getPath() + ".1"));
+        }
+        written = file.length();
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+    }
+
+    private void flush() {
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (IOException ex) {
+                closeWriter();
+            }
+        }
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+            }
+            writer = null;
+        }
+    }
+
+    // sisa antrian ditulis dulu, paling lama 2 detik
+    @Override
+    public void close() {
+        try {
+            queue.put(STOP);
+            thread.join(2000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
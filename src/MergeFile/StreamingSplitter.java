@@ -0,0 +1,342 @@
+package MergeFile;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Split PDF per bagian: per halaman, rentang halaman, per N halaman, atau maksimal ukuran (MB).
+// Halaman dibaca berurutan dan tiap bagian langsung disimpan lalu ditutup begitu lengkap,
+// jadi yang ada di memori hanya bagian yang sedang dibuat.
+final class StreamingSplitter {
+
+    private static final String CONTEXT = "Split PDF";
+    private static final long PART_OVERHEAD_BYTES = 1024; // header, trailer, xref (perkiraan)
+    private static final long OBJECT_OVERHEAD_BYTES = 32; // per dictionary/objek (perkiraan)
+
+    enum Mode {
+        PER_PAGE, RANGES, CHUNKS, MAX_SIZE
+    }
+
+    private final Mode mode;
+    private final String rangeSpec; // contoh: "1-3,5,8-10"
+    private final int chunkPages;
+    private final int maxPartMb;
+    private final PdfInput input;
+    private final JobMetrics metrics;
+    private final JobListener listener;
+
+    StreamingSplitter(Mode mode, String rangeSpec, int chunkPages, int maxPartMb, PdfInput input,
+            JobMetrics metrics, JobListener listener) {
+        this.mode = mode;
+        this.rangeSpec = rangeSpec;
+        this.chunkPages = Math.max(1, chunkPages);
+        this.maxPartMb = Math.max(1, maxPartMb);
+        this.input = input;
+        this.metrics = metrics;
+        this.listener = listener;
+    }
+
+    // hasilnya jumlah file bagian yang dibuat
+    int split(File fileToSplit, File outputDir) throws IOException {
+        return split(fileToSplit, outputDir, null);
+    }
+
+    // archive bukan null: tiap bagian langsung jadi entri arsip, tidak ada file di outputDir
+    int split(File fileToSplit, File outputDir, ArchiveOutput archive) throws IOException {
+        // data stream sumber disimpan di file sementara, bukan di heap
+        PDDocument opened;
+        JobMetrics.Span parseSpan = metrics.span("parse", fileToSplit);
+        try {
+            opened = input.open(fileToSplit, MemoryUsageSetting.setupTempFileOnly());
+        } finally {
+            parseSpan.end();
+        }
+        metrics.input(fileToSplit);
+        try (PDDocument document = opened) {
+            int pageCount = document.getNumberOfPages();
+            List<int[]> ranges = mode == Mode.RANGES ? parseRanges(rangeSpec, pageCount) : null;
+            long maxPartBytes = maxPartMb * 1024L * 1024L;
+
+            listener.log("⚙️ Split " + fileToSplit.getName() + " (" + pageCount + " halaman): " + describe());
+
+            Iterator<PDPage> pages = document.getPages().iterator();
+            int rangeIndex = 0;
+            int parts = 0;
+
+            PDDocument part = null;
+            int partFrom = 0;
+            int partTo = 0;
+            long partStarted = 0;
+            long partBytes = 0;
+            Set<COSBase> counted = null;
+
+            try {
+                for (int i = 0; i < pageCount; i++) {
+                    if (listener.isCancelled()) {
+                        break;
+                    }
+                    PDPage page = pages.next();
+                    int pageNo = i + 1;
+
+                    // rentang: halaman di luar rentang dilewati
+                    if (ranges != null) {
+                        while (rangeIndex < ranges.size() && ranges.get(rangeIndex)[1] < pageNo) {
+                            rangeIndex++;
+                        }
+                        if (rangeIndex >= ranges.size()) {
+                            break;
+                        }
+                        if (pageNo < ranges.get(rangeIndex)[0]) {
+                            continue;
+                        }
+                    }
+
+                    long pageBytes = 0;
+                    if (mode == Mode.MAX_SIZE) {
+                        // ukuran dihitung bertahap dari stream yang belum ada di bagian ini, tanpa simpan percobaan
+                        Set<COSBase> seen = counted != null ? counted
+                                : Collections.newSetFromMap(new IdentityHashMap<>());
+                        pageBytes = estimateNewBytes(page, seen);
+                        if (part != null && partBytes + pageBytes > maxPartBytes) {
+                            parts += flush(part, fileToSplit, outputDir, archive, partFrom, partTo, partStarted);
+                            part = null;
+                            // hitung ulang: resource bersama harus ikut lagi di bagian baru
+                            seen = Collections.newSetFromMap(new IdentityHashMap<>());
+                            pageBytes = estimateNewBytes(page, seen);
+                        }
+                        counted = seen;
+                    }
+
+                    if (part == null) {
+                        part = new PDDocument();
+                        partStarted = System.nanoTime();
+                        partFrom = pageNo;
+                        partBytes = PART_OVERHEAD_BYTES;
+                    }
+                    JobMetrics.Span importSpan = metrics.span("import", fileToSplit);
+                    try {
+                        importPage(part, page);
+                    } finally {
+                        importSpan.end();
+                    }
+                    metrics.pages(1);
+                    partTo = pageNo;
+                    partBytes += pageBytes;
+
+                    if (isPartComplete(ranges, rangeIndex, pageNo, partFrom, pageCount)) {
+                        parts += flush(part, fileToSplit, outputDir, archive, partFrom, partTo, partStarted);
+                        part = null;
+                        counted = null;
+                    }
+
+                    listener.progress((int) ((pageNo * 100.0f) / pageCount));
+                }
+                if (part != null && !listener.isCancelled()) {
+                    parts += flush(part, fileToSplit, outputDir, archive, partFrom, partTo, partStarted);
+                    part = null;
+                }
+            } finally {
+                if (part != null) {
+                    part.close();
+                }
+            }
+            return parts;
+        }
+    }
+
+    private boolean isPartComplete(List<int[]> ranges, int rangeIndex, int pageNo, int partFrom, int pageCount) {
+        switch (mode) {
+            case PER_PAGE:
+                return true;
+            case RANGES:
+                return pageNo == Math.min(ranges.get(rangeIndex)[1], pageCount);
+            case CHUNKS:
+                return pageNo - partFrom + 1 >= chunkPages;
+            default:
+                return false; // MAX_SIZE: ditutup saat halaman berikutnya tidak muat
+        }
+    }
+
+    private int flush(PDDocument part, File source, File outputDir, ArchiveOutput archive, int from, int to,
+            long started) {
+        // nama sama seperti dulu untuk satu halaman: nama_3.pdf, rentang: nama_3-7.pdf
+        String suffix = from == to ? String.valueOf(from) : from + "-" + to;
+        File outFile = new File(outputDir, source.getName().replace(".pdf", "") + "_" + suffix + ".pdf");
+        try {
+            long size;
+            JobMetrics.Span saveSpan = metrics.span("save", outFile);
+            try {
+                if (archive != null) {
+                    size = archive.add(outFile.getName(), part::save);
+                } else {
+                    part.save(outFile);
+                    size = outFile.length();
+                }
+            } finally {
+                saveSpan.end();
+            }
+            metrics.output(size);
+            metrics.done(source, archive != null ? archive.getTarget().getPath() + "!/" + outFile.getName()
+                    : outFile.getPath(), to - from + 1, size, System.nanoTime() - started);
+            listener.log("Membuat: " + outFile.getName());
+            if (mode == Mode.MAX_SIZE && size > maxPartMb * 1024L * 1024L) {
+                listener.log("⚠️ " + outFile.getName() + " melebihi " + maxPartMb + " MB"
+                        + (from == to ? " (satu halaman saja sudah terlalu besar)" : ""));
+            }
+            return 1;
+        } catch (IOException ex) {
+            listener.error(CONTEXT, ex, outFile);
+            return 0;
+        } finally {
+            try {
+                part.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    // seperti Splitter PDFBox: atribut yang diwarisi dari page tree ikut disalin
+    private static void importPage(PDDocument part, PDPage page) throws IOException {
+        PDPage imported = part.importPage(page);
+        imported.setResources(page.getResources());
+        imported.setMediaBox(page.getMediaBox());
+        imported.setCropBox(page.getCropBox());
+        imported.setRotation(page.getRotation());
+    }
+
+    // Perkiraan byte yang ditambahkan halaman ke bagian: panjang stream (konten, gambar, font)
+    // dan dictionary yang belum pernah dihitung di bagian ini. /Parent dan halaman lain
+    // (mis. tujuan link) tidak diikuti.
+    private static long estimateNewBytes(PDPage page, Set<COSBase> counted) {
+        long bytes = 0;
+        Deque<COSBase> stack = new ArrayDeque<>();
+        stack.push(page.getCOSObject());
+        if (page.getResources() != null) {
+            // resources bisa diwarisi dari page tree
+            stack.push(page.getResources().getCOSObject());
+        }
+        while (!stack.isEmpty()) {
+            COSBase base = stack.pop();
+            if (base instanceof COSObject) {
+                base = ((COSObject) base).getObject();
+            }
+            if (base == null) {
+                continue;
+            }
+            if (base instanceof COSDictionary) {
+                COSDictionary dict = (COSDictionary) base;
+                if (dict != page.getCOSObject() && COSName.PAGE.equals(dict.getCOSName(COSName.TYPE))) {
+                    continue;
+                }
+                if (!counted.add(base)) {
+                    continue;
+                }
+                bytes += OBJECT_OVERHEAD_BYTES;
+                if (base instanceof COSStream) {
+                    bytes += ((COSStream) base).getLength();
+                }
+                for (Map.Entry<COSName, COSBase> entry : dict.entrySet()) {
+                    if (!COSName.PARENT.equals(entry.getKey()) && !COSName.P.equals(entry.getKey())) {
+                        stack.push(entry.getValue());
+                    }
+                }
+            } else if (base instanceof COSArray) {
+                if (!counted.add(base)) {
+                    continue;
+                }
+                for (COSBase item : (COSArray) base) {
+                    stack.push(item);
+                }
+            }
+        }
+        // halaman baru selalu minimal satu objek
+        return Math.max(bytes, OBJECT_OVERHEAD_BYTES);
+    }
+
+    // "1-3, 5, 8-" → [[1,3],[5,5],[8,pageCount]], diurutkan dan dibatasi jumlah halaman.
+    // Rentang yang tumpang tindih ("1-5,3-7", "1-5,2") ditolak: satu halaman hanya bisa masuk satu bagian.
+    static List<int[]> parseRanges(String spec, int pageCount) {
+        List<int[]> ranges = new ArrayList<>();
+        if (spec == null) {
+            return ranges;
+        }
+        for (String token : spec.split(",")) {
+            String t = token.trim();
+            if (t.isEmpty()) {
+                continue;
+            }
+            int from;
+            int to;
+            try {
+                int dash = t.indexOf('-');
+                if (dash < 0) {
+                    from = to = Integer.parseInt(t);
+                } else {
+                    String left = t.substring(0, dash).trim();
+                    String right = t.substring(dash + 1).trim();
+                    from = left.isEmpty() ? 1 : Integer.parseInt(left);
+                    to = right.isEmpty() ? pageCount : Integer.parseInt(right);
+                }
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Rentang halaman tidak valid: " + t);
+            }
+            if (from < 1 || to < from) {
+                throw new IllegalArgumentException("Rentang halaman tidak valid: " + t);
+            }
+            ranges.add(new int[]{from, to});
+        }
+        ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+        for (int i = 1; i < ranges.size(); i++) {
+            int[] prev = ranges.get(i - 1);
+            int[] cur = ranges.get(i);
+            if (cur[0] <= prev[1]) {
+                throw new IllegalArgumentException("Rentang halaman tumpang tindih: "
+                        + describeRange(prev, pageCount) + " dan " + describeRange(cur, pageCount));
+            }
+        }
+        // dicek sebelum dibatasi, supaya hasil validasi tidak tergantung jumlah halaman
+        ranges.removeIf(r -> r[0] > pageCount);
+        for (int[] r : ranges) {
+            r[1] = Math.min(r[1], pageCount);
+        }
+        return ranges;
+    }
+
+    private static String describeRange(int[] range, int pageCount) {
+        if (range[0] == range[1]) {
+            return String.valueOf(range[0]);
+        }
+        return range[0] + "-" + (range[1] >= pageCount ? "" : String.valueOf(range[1]));
+    }
+
+    String describe() {
+        switch (mode) {
+            case RANGES:
+                return "rentang " + rangeSpec;
+            case CHUNKS:
+                return "per " + chunkPages + " halaman";
+            case MAX_SIZE:
+                return "maksimal " + maxPartMb + " MB per bagian";
+            default:
+                return "per halaman";
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package MergeFile;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+// Halaman sangat besar (gambar teknik A0/A1 di 300 DPI) tidak dirender jadi satu BufferedImage,
+// satu halaman A0 saja sudah ±550 MB. Halaman dirender per strip horizontal ke satu gambar kecil
+// yang dipakai ulang, piksel tiap strip (RGB, atau satu byte abu-abu untuk mode GRAY/BINARY)
+// langsung ditulis ke file sementara. Encoder JPG lalu
+// membaca halaman itu baris demi baris dari file lewat DataBuffer yang membaca file, jadi memori
+// puncak hanya satu strip + jendela baca, berapa pun ukuran halamannya. Karena encoder mencoba
+// beberapa kualitas, halaman tetap hanya dirender sekali. Halaman kecil tetap lewat jalur biasa.
+final class TiledPageRenderer {
+
+    // di atas ini dirender per strip: ±A2 di 300 DPI untuk RGB (4 byte/piksel), ±A0 untuk abu-abu
+    static final long TILE_THRESHOLD_BYTES = 80_000_000L;
+    private static final int STRIP_PIXELS = 8_000_000; // satu strip ±32 MB (INT_RGB)
+    private static final int MAX_SIDE = 65_500; // batas lebar/tinggi gambar JPEG
+    private static final long MAX_BYTES = Integer.MAX_VALUE - 8; // indeks DataBuffer berupa int
+    private static final int READ_WINDOW = 1 << 20; // byte yang dibaca sekali jalan dari file sementara
+
+    private TiledPageRenderer() {
+    }
+
+    // ukuran hasil render sama dengan PDFRenderer.renderImageWithDPI; BINARY dihitung 1 byte/piksel
+    // karena sebelum encode JPG diubah ke abu-abu
+    static boolean isOversized(PDPage page, float dpi, ImageType type) {
+        long[] size = pixelSize(page, dpi / 72f);
+        return size[0] * size[1] * (type == ImageType.RGB ? 4 : 1) > TILE_THRESHOLD_BYTES;
+    }
+
+    private static long[] pixelSize(PDPage page, float scale) {
+        PDRectangle cropBox = page.getCropBox();
+        long width = (long) Math.max(Math.floor(cropBox.getWidth() * scale), 1);
+        long height = (long) Math.max(Math.floor(cropBox.getHeight() * scale), 1);
+        int rotation = page.getRotation();
+        if (rotation == 90 || rotation == 270) {
+            return new long[]{height, width};
+        }
+        return new long[]{width, height};
+    }
+
+    // type RGB, GRAY atau BINARY; hasil BINARY disimpan sebagai abu-abu 0/255
+    static TiledPage render(PDFRenderer renderer, PDPage page, int pageIndex, float dpi, ImageType type)
+            throws IOException {
+        int bands = type == ImageType.RGB ? 3 : 1;
+        float scale = dpi / 72f;
+        long[] size = pixelSize(page, scale);
+        // lewat batas JPEG / DataBuffer: resolusi diturunkan secukupnya, bukan gagal
+        double shrink = Math.min(1.0, Math.min((double) MAX_SIDE / size[0], (double) MAX_SIDE / size[1]));
+        shrink = Math.min(shrink, Math.sqrt((double) MAX_BYTES / (size[0] * size[1] * bands)));
+        if (shrink < 1.0) {
+            scale = (float) (scale * shrink * 0.999);
+            size = pixelSize(page, scale);
+        }
+        int width = (int) size[0];
+        int height = (int) size[1];
+        int stripRows = Math.max(1, Math.min(height, STRIP_PIXELS / width));
+
+        File file = File.createTempFile("halaman-", ".rgb");
+        try {
+            BufferedImage strip = new BufferedImage(width, stripRows, type == ImageType.RGB
+                    ? BufferedImage.TYPE_INT_RGB
+                    : type == ImageType.GRAY ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_BYTE_BINARY);
+            byte[] row = new byte[width * bands];
+            int[] samples = bands == 1 ? new int[width] : null;
+            int strips = 0;
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+                for (int top = 0; top < height; top += stripRows) {
+                    Graphics2D g = strip.createGraphics();
+                    try {
+                        g.setBackground(Color.WHITE);
+                        g.clearRect(0, 0, width, stripRows);
+                        g.translate(0, -top);
+                        renderer.renderPageToGraphics(pageIndex, g, scale, scale);
+                    } finally {
+                        g.dispose();
+                    }
+                    int rows = Math.min(stripRows, height - top);
+                    for (int y = 0; y < rows; y++) {
+                        if (bands == 3) {
+                            int[] pixels = ((DataBufferInt) strip.getRaster().getDataBuffer()).getData();
+                            int p = y * width;
+                            for (int x = 0, i = 0; x < width; x++, p++) {
+                                int rgb = pixels[p];
+                                row[i++] = (byte) (rgb >> 16);
+                                row[i++] = (byte) (rgb >> 8);
+                                row[i++] = (byte) rgb;
+                            }
+                        } else {
+                            strip.getRaster().getSamples(0, y, width, 1, 0, samples);
+                            int factor = type == ImageType.BINARY ? 255 : 1; // sampel 1 bit: 0/1
+                            for (int x = 0; x < width; x++) {
+                                row[x] = (byte) (samples[x] * factor);
+                            }
+                        }
+                        out.write(row);
+                    }
+                    strips++;
+                }
+            }
+            return new TiledPage(file, width, height, bands, strips, scale * 72f);
+        } catch (IOException | RuntimeException ex) {
+            file.delete();
+            throw ex;
+        }
+    }
+
+    // hasil render per strip; close() menghapus file sementara
+    static final class TiledPage implements Closeable {
+
+        private final File file;
+        private final FileChannel channel;
+        private final BufferedImage image;
+        private final int strips;
+        private final float dpi;
+
+        private TiledPage(File file, int width, int height, int bands, int strips, float dpi) throws IOException {
+            this.file = file;
+            this.strips = strips;
+            this.dpi = dpi;
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            FileRows data = new FileRows(channel, width * bands * height);
+            RowSampleModel model = new RowSampleModel(width, height, bands);
+            WritableRaster raster = Raster.createWritableRaster(model, data, null);
+            ComponentColorModel colors = new ComponentColorModel(
+                    ColorSpace.getInstance(bands == 3 ? ColorSpace.CS_sRGB : ColorSpace.CS_GRAY),
+                    false, false, Transparency.OPAQUE, DataBuffer.TYPE_BYTE);
+            this.image = new BufferedImage(colors, raster, false, null);
+        }
+
+        // hanya untuk dibaca (encoder JPG), piksel dibaca dari file saat dibutuhkan
+        BufferedImage getImage() {
+            return image;
+        }
+
+        int getStripCount() {
+            return strips;
+        }
+
+        float getDpi() {
+            return dpi;
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            file.delete();
+        }
+    }
+
+    // DataBuffer baca-saja di atas file piksel. Encoder JPG membaca berurutan dari atas ke bawah,
+    // jadi cukup satu jendela READ_WINDOW byte yang digeser.
+    private static final class FileRows extends DataBuffer {
+
+        private final FileChannel channel;
+        private final byte[] window = new byte[READ_WINDOW];
+        private long windowStart = 0;
+        private int windowLength = 0;
+
+        FileRows(FileChannel channel, int size) {
+            super(DataBuffer.TYPE_BYTE, size);
+            this.channel = channel;
+        }
+
+        @Override
+        public int getElem(int bank, int i) {
+            long offset = i - windowStart;
+            if (offset < 0 || offset >= windowLength) {
+                load(i);
+                offset = 0;
+            }
+            return window[(int) offset] & 0xFF;
+        }
+
+        private void load(long position) {
+            ByteBuffer buffer = ByteBuffer.wrap(window, 0, (int) Math.min(window.length, size - position));
+            try {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        throw new IOException("File render sementara terpotong");
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            windowStart = position;
+            windowLength = buffer.position();
+        }
+
+        // salin n sampel mulai indeks i sekaligus, tanpa getElem per sampel
+        void copy(int i, int[] dst, int dstPos, int n) {
+            while (n > 0) {
+                long offset = i - windowStart;
+                if (offset < 0 || offset >= windowLength) {
+                    load(i);
+                    offset = 0;
+                }
+                int chunk = (int) Math.min(n, windowLength - offset);
+                for (int k = 0, o = (int) offset; k < chunk; k++) {
+                    dst[dstPos + k] = window[o + k] & 0xFF;
+                }
+                i += chunk;
+                dstPos += chunk;
+                n -= chunk;
+            }
+        }
+
+        @Override
+        public void setElem(int bank, int i, int val) {
+            throw new UnsupportedOperationException("Halaman hasil render per strip hanya bisa dibaca");
+        }
+    }
+
+    // encoder JPG menyalin halaman per baris lewat getPixels: baris disalin langsung dari jendela FileRows
+    private static final class RowSampleModel extends PixelInterleavedSampleModel {
+
+        RowSampleModel(int width, int height, int bands) {
+            super(DataBuffer.TYPE_BYTE, width, height, bands, width * bands,
+                    bands == 3 ? new int[]{0, 1, 2} : new int[]{0});
+        }
+
+        @Override
+        public int[] getPixels(int x, int y, int w, int h, int[] iArray, DataBuffer data) {
+            if (!(data instanceof FileRows) || x < 0 || y < 0 || x + w > width || y + h > height) {
+                return super.getPixels(x, y, w, h, iArray, data);
+            }
+            int[] pixels = iArray != null ? iArray : new int[w * h * numBands];
+            for (int row = 0; row < h; row++) {
+                ((FileRows) data).copy((y + row) * scanlineStride + x * numBands, pixels, row * w * numBands,
+                        w * numBands);
+            }
+            return pixels;
+        }
+
+        @Override
+        public SampleModel createSubsetSampleModel(int[] bands) {
+            if (bands != null) {
+                for (int i = 0; i < bands.length; i++) {
+                    if (bands.length != numBands || bands[i] != i) {
+                        return super.createSubsetSampleModel(bands);
+                    }
+                }
+            }
+            return this;
+        }
+    }
+}
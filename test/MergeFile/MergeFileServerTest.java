@@ -0,0 +1,170 @@
+package MergeFile;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// Round-trip lewat HTTP ke server di 127.0.0.1 (port bebas), tanpa jaringan luar dan tanpa Ghostscript
+public class MergeFileServerTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    private File workDir;
+    private MergeFileServer server;
+    private String base;
+
+    @Before
+    public void setUp() throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        workDir = Files.createTempDirectory("mergefile-server-test").toFile();
+        PrintStream quiet = new PrintStream(OutputStream.nullOutputStream(), true, StandardCharsets.UTF_8);
+        server = new MergeFileServer(new JobSettings(), workDir, 1, 4, 16 * MB, MB, quiet);
+        server.start(new InetSocketAddress("127.0.0.1", 0));
+        base = "http://127.0.0.1:" + server.getPort();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.stop();
+        try (Stream<java.nio.file.Path> paths = Files.walk(workDir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void healthIsOk() throws IOException {
+        HttpURLConnection conn = open("/health", "GET");
+        assertEquals(200, conn.getResponseCode());
+        assertTrue(read(conn).contains("\"status\":\"ok\""));
+    }
+
+    @Test
+    public void mergeUploadedZipAndDownloadResult() throws Exception {
+        // nama sama di dua folder: keduanya harus jadi input, bukan saling timpa
+        byte[] zip = zip(new String[]{"a/surat.pdf", "b/surat.pdf"}, new byte[][]{pdf(1), pdf(2)});
+        HttpURLConnection conn = post("/jobs?op=gabung&threads=100000", "application/zip", zip);
+        assertEquals(202, conn.getResponseCode());
+        String job = read(conn);
+        assertTrue(job, job.contains("\"inputFiles\":2"));
+
+        String id = field(job, "id");
+        String status = waitFinished(id);
+        String done = read(open("/jobs/" + id, "GET"));
+        assertEquals(done, "DONE", status);
+
+        String url = field(done, "url");
+        HttpURLConnection download = open(new URI(null, null, url, null).toASCIIString(), "GET");
+        assertEquals(200, download.getResponseCode());
+        try (InputStream in = download.getInputStream(); PDDocument merged = PDDocument.load(in)) {
+            assertEquals(3, merged.getNumberOfPages());
+        }
+    }
+
+    @Test
+    public void zipBombIsRejected() throws IOException {
+        // 8 MB nol → ZIP beberapa KB, jauh di bawah batas upload tapi di atas batas ekstrak 1 MB
+        byte[] zip = zip(new String[]{"bom.pdf"}, new byte[][]{new byte[(int) (8 * MB)]});
+        assertTrue(zip.length < MB);
+        HttpURLConnection conn = post("/jobs?op=kompres", "application/zip", zip);
+        assertEquals(413, conn.getResponseCode());
+        // folder job yang gagal sudah dihapus, hanya cache yang boleh tersisa
+        String[] left = workDir.list((dir, name) -> !"cache".equals(name));
+        assertEquals(0, left == null ? 0 : left.length);
+    }
+
+    @Test
+    public void unknownOperationIsBadRequest() throws IOException {
+        HttpURLConnection conn = post("/jobs?op=cetak", "application/pdf", pdf(1));
+        assertEquals(400, conn.getResponseCode());
+    }
+
+    private String waitFinished(String id) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (System.currentTimeMillis() < deadline) {
+            String status = field(read(open("/jobs/" + id, "GET")), "status");
+            if (!"QUEUED".equals(status) && !"RUNNING".equals(status)) {
+                return status;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Job " + id + " belum selesai setelah 60 detik");
+    }
+
+    private HttpURLConnection open(String path, String method) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(base + path).openConnection();
+        conn.setRequestMethod(method);
+        return conn;
+    }
+
+    private HttpURLConnection post(String path, String contentType, byte[] body) throws IOException {
+        HttpURLConnection conn = open(path, "POST");
+        conn.setDoOutput(true);
+        conn.setRequestProperty("Content-Type", contentType);
+        conn.setFixedLengthStreamingMode(body.length);
+        try (OutputStream out = conn.getOutputStream()) {
+            out.write(body);
+        }
+        return conn;
+    }
+
+    private static String read(HttpURLConnection conn) throws IOException {
+        InputStream in = conn.getResponseCode() < 400 ? conn.getInputStream() : conn.getErrorStream();
+        try (InputStream body = in) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // nilai string pertama untuk key di JSON respon; cukup untuk respon server yang sederhana
+    private static String field(String json, String key) {
+        Matcher m = Pattern.compile("\"" + key + "\":\"([^\"]*)\"").matcher(json);
+        assertTrue(key + " tidak ada di " + json, m.find());
+        return m.group(1);
+    }
+
+    private static byte[] pdf(int pages) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 0; i < pages; i++) {
+                document.addPage(new PDPage());
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static byte[] zip(String[] names, byte[][] contents) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (int i = 0; i < names.length; i++) {
+                zip.putNextEntry(new ZipEntry(names[i]));
+                zip.write(contents[i]);
+                zip.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,66 @@
+package MergeFile;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StreamingSplitterTest {
+
+    @Test
+    public void rangesAreSortedAndClampedToPageCount() {
+        List<int[]> ranges = StreamingSplitter.parseRanges(" 8-, 1-3 ,5,20-30", 10);
+        assertEquals(3, ranges.size());
+        assertArrayEquals(new int[]{1, 3}, ranges.get(0));
+        assertArrayEquals(new int[]{5, 5}, ranges.get(1));
+        assertArrayEquals(new int[]{8, 10}, ranges.get(2));
+    }
+
+    @Test
+    public void adjacentRangesAreAllowed() {
+        List<int[]> ranges = StreamingSplitter.parseRanges("1-5,6-7", 10);
+        assertEquals(2, ranges.size());
+    }
+
+    @Test
+    public void overlappingRangesAreRejected() {
+        assertRejected("1-5,3-7", "tumpang tindih");
+    }
+
+    @Test
+    public void containedRangeIsRejected() {
+        assertRejected("1-5,2", "tumpang tindih");
+    }
+
+    @Test
+    public void overlapIsRejectedBeforePageCountIsKnown() {
+        // validasi CLI/GUI memakai Integer.MAX_VALUE; "8-" tetap menutupi 9
+        assertRejected("8-,9", "tumpang tindih");
+        try {
+            StreamingSplitter.parseRanges("8-,9", Integer.MAX_VALUE);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Rentang halaman tumpang tindih: 8- dan 9", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void invalidTokensAreRejected() {
+        assertRejected("3-1", "tidak valid");
+        assertRejected("0", "tidak valid");
+        assertRejected("a-b", "tidak valid");
+    }
+
+    private static void assertRejected(String spec, String message) {
+        try {
+            StreamingSplitter.parseRanges(spec, 10);
+            fail("Rentang " + spec + " seharusnya ditolak");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains(message));
+        }
+    }
+}